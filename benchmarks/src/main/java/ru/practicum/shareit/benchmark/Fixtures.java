@@ -0,0 +1,83 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic entities shaped like the rows the server loads, built from a fixed seed so every run and
+ * fork measures the same data.
+ */
+public final class Fixtures {
+    public static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private final Random random = new Random(42);
+    private final User owner = new User(1L, "owner@email.com", "owner");
+    private final List<User> bookers = new ArrayList<>();
+
+    public Fixtures() {
+        for (long id = 2; id < 12; id++) {
+            bookers.add(new User(id, "booker" + id + "@email.com", "booker " + id));
+        }
+    }
+
+    public User owner() {
+        return owner;
+    }
+
+    public List<Item> items(int count) {
+        List<Item> items = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            items.add(new Item(id, "Item " + id, "Synthetic item number " + id + " for benchmarks", owner,
+                    id % 5 != 0, id % 3 == 0 ? id : null));
+        }
+        return items;
+    }
+
+    /**
+     * Non-overlapping bookings per item, half of them before {@link #NOW}, mostly approved.
+     */
+    public List<Booking> bookings(List<Item> items, int perItem) {
+        List<Booking> bookings = new ArrayList<>(items.size() * perItem);
+        long id = 1;
+        for (Item item : items) {
+            LocalDateTime start = NOW.minusDays(perItem);
+            for (int i = 0; i < perItem; i++) {
+                LocalDateTime end = start.plusHours(1 + random.nextInt(36));
+                BookingStatus status = random.nextInt(10) < 8 ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+                bookings.add(new Booking(id++, start, end, item, booker(), status));
+                start = end.plusHours(random.nextInt(24));
+            }
+        }
+        return bookings;
+    }
+
+    public List<Comment> comments(List<Item> items, int perItem) {
+        List<Comment> comments = new ArrayList<>(items.size() * perItem);
+        long id = 1;
+        for (Item item : items) {
+            for (int i = 0; i < perItem; i++) {
+                comments.add(new Comment(id++, "Comment " + i + " on " + item.getName(), item, booker()));
+            }
+        }
+        return comments;
+    }
+
+    public static BookingView view(Booking booking) {
+        return new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getBooker().getId(),
+                booking.getBooker().getName());
+    }
+
+    private User booker() {
+        return bookers.get(random.nextInt(bookers.size()));
+    }
+}
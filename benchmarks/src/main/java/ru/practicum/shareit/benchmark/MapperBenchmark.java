@@ -0,0 +1,92 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.utility.BookingDtoMapper;
+import ru.practicum.shareit.utility.CommentDtoMapper;
+import ru.practicum.shareit.utility.ItemDtoMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of mapping one entity or projection row to its response DTO; each call cycles through a set of
+ * rows so the JIT cannot fold the result.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private static final int ROWS = 1024;
+
+    private List<Booking> bookings;
+    private List<BookingView> views;
+    private List<Item> items;
+    private List<Comment> comments;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Fixtures fixtures = new Fixtures();
+        items = fixtures.items(ROWS);
+        bookings = fixtures.bookings(items, 1);
+        comments = fixtures.comments(items, 1);
+        views = bookings.stream().map(Fixtures::view).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public BookingResponseDto bookingToDto() {
+        return BookingDtoMapper.toDto(bookings.get(nextRow()));
+    }
+
+    @Benchmark
+    public BookingResponseDto bookingViewToDto() {
+        return BookingDtoMapper.toDto(views.get(nextRow()));
+    }
+
+    @Benchmark
+    public BookingRequestDto bookingToBookingRequestDto() {
+        return BookingDtoMapper.toBookingRequestDto(bookings.get(nextRow()));
+    }
+
+    @Benchmark
+    public ItemResponseDto itemToDto() {
+        return ItemDtoMapper.toDto(items.get(nextRow()));
+    }
+
+    @Benchmark
+    public ItemShortDto itemToShortDto() {
+        return ItemDtoMapper.toShortDto(items.get(nextRow()));
+    }
+
+    @Benchmark
+    public CommentResponseDto commentToResponseDto() {
+        return CommentDtoMapper.toResponseDto(comments.get(nextRow()));
+    }
+
+    private int nextRow() {
+        next = (next + 1) & (ROWS - 1);
+        return next;
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utility.BookingDtoMapper;
+import ru.practicum.shareit.utility.CommentDtoMapper;
+import ru.practicum.shareit.utility.ItemDtoMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Jackson serialization of response pages, with the object mapper configured the way Spring MVC builds
+ * it for the server. Items carry their last and next bookings and two comments each; the booking page is
+ * also serialized in the entity shape it had before it was mapped to DTOs, with the owner in every item.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<ItemResponseDto> items;
+    private List<BookingResponseDto> bookings;
+    private List<EntityBookingResponse> entityBookings;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Fixtures fixtures = new Fixtures();
+        List<Item> entities = fixtures.items(pageSize);
+        List<Booking> itemBookings = fixtures.bookings(entities, 2);
+        Map<Long, List<CommentResponseDto>> comments = fixtures.comments(entities, 2).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentDtoMapper::toResponseDto, Collectors.toList())));
+        items = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            ItemResponseDto item = ItemDtoMapper.toDto(entities.get(i));
+            item.setLastBooking(BookingDtoMapper.toBookingRequestDto(itemBookings.get(2 * i)));
+            item.setNextBooking(BookingDtoMapper.toBookingRequestDto(itemBookings.get(2 * i + 1)));
+            item.setComments(comments.get(item.getId()));
+            items.add(item);
+        }
+        bookings = itemBookings.subList(0, pageSize).stream()
+                .map(BookingDtoMapper::toDto)
+                .collect(Collectors.toList());
+        entityBookings = itemBookings.subList(0, pageSize).stream()
+                .map(EntityBookingResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] itemPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] bookingPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] bookingEntityPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(entityBookings);
+    }
+
+    public static final class EntityBookingResponse {
+        public final Long id;
+        public final LocalDateTime start;
+        public final LocalDateTime end;
+        public final Item item;
+        public final User booker;
+        public final BookingStatus status;
+
+        EntityBookingResponse(Booking booking) {
+            this.id = booking.getId();
+            this.start = booking.getStart();
+            this.end = booking.getEnd();
+            this.item = booking.getItem();
+            this.booker = booking.getBooker();
+            this.status = booking.getStatus();
+        }
+    }
+}
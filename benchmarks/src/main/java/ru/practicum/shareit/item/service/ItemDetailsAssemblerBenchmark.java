@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.benchmark.Fixtures;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Assembly of an owner's item page with last/next bookings and comments, as done by
+ * {@code ItemServiceImpl.getAllItemsByOwner} once the rows are loaded. Lives in the service package
+ * because the assembler is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemDetailsAssemblerBenchmark {
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    @Param({"2", "20"})
+    private int bookingsPerItem;
+
+    private Long ownerId;
+    private List<Item> page;
+    private List<Booking> bookings;
+    private List<Comment> comments;
+
+    @Setup
+    public void setUp() {
+        Fixtures fixtures = new Fixtures();
+        ownerId = fixtures.owner().getId();
+        page = fixtures.items(items);
+        bookings = fixtures.bookings(page, bookingsPerItem);
+        comments = fixtures.comments(page, 3);
+    }
+
+    @Benchmark
+    public List<ItemResponseDto> assembleOwnerPage() {
+        ItemDetailsAssembler assembler = new ItemDetailsAssembler(bookings, comments, Fixtures.NOW);
+        return page.stream()
+                .map(item -> assembler.assemble(ownerId, item))
+                .collect(Collectors.toList());
+    }
+}
@@ -2,67 +2,99 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.utility.CustomHeaders;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private static final int HANDLE_BOOKING_RETRIES = 2;
+    private static final Duration HANDLE_BOOKING_BACKOFF = Duration.ofMillis(100);
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         @Value("${shareit-server.passthrough:true}") boolean passthrough,
+                         WebClient.Builder builder) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                passthrough
         );
     }
 
-    public ResponseEntity<Object> addBooking(Long userId, BookingRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> addBooking(Long userId, BookingRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> handleBooking(Long userId, Long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> addBookings(Long userId, List<BookingRequestDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    /**
+     * Retries only requests that failed to reach the server; every attempt carries the same idempotency
+     * key, so the server applies the decision at most once.
+     */
+    public Mono<ResponseEntity<Object>> handleBooking(Long userId, Long bookingId, boolean approved,
+                                                      String idempotencyKey) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
-        return patch("/" + bookingId + "?approved=" + approved, userId, parameters);
+        return patch("/" + bookingId + "?approved=" + approved, userId, null, parameters,
+                Map.of(CustomHeaders.IDEMPOTENCY_KEY, idempotencyKey))
+                .retryWhen(Retry.backoff(HANDLE_BOOKING_RETRIES, HANDLE_BOOKING_BACKOFF)
+                        .filter(WebClientRequestException.class::isInstance));
     }
 
-    public ResponseEntity<Object> getBooking(Long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsForUser(Long userId,
-                                                        BookingState state,
-                                                        Integer from,
-                                                        Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllBookingsForUser(Long userId,
+                                                              BookingState state,
+                                                              Integer from,
+                                                              Integer size,
+                                                              @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        if (cursor == null) {
+            return get("?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("?state={state}&from={from}&size={size}&cursor={cursor}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBookingsForUserItems(Long userId,
-                                                             BookingState state,
-                                                             Integer from,
-                                                             Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllBookingsForUserItems(Long userId,
+                                                                   BookingState state,
+                                                                   Integer from,
+                                                                   Integer size,
+                                                                   @Nullable String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        if (cursor == null) {
+            return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("/owner?state={state}&from={from}&size={size}&cursor={cursor}", userId, parameters);
     }
 }
@@ -6,14 +6,19 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.UnknownStateException;
 import ru.practicum.shareit.utility.CustomHeaders;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -21,47 +26,66 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class BookingController {
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> addBooking(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
-                                             @Valid @RequestBody BookingRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> addBooking(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                                                   @Valid @RequestBody BookingRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.addBooking(userId, requestDto);
     }
 
+    /**
+     * Entries are validated by the server, which reports a result per entry instead of failing the batch.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> addBookings(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                                                    @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+                                                    List<BookingRequestDto> requestDtos) {
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+        return bookingClient.addBookings(userId, requestDtos);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> handleBooking(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
-                                                @PathVariable Long bookingId,
-                                                @RequestParam boolean approved) {
-        return bookingClient.handleBooking(userId, bookingId, approved);
+    public Mono<ResponseEntity<Object>> handleBooking(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                                                      @PathVariable Long bookingId,
+                                                      @RequestParam boolean approved,
+                                                      @RequestHeader(value = CustomHeaders.IDEMPOTENCY_KEY,
+                                                              required = false) @Size(max = 64) String idempotencyKey) {
+        String key = idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString();
+        log.info("Handle booking {}, approved={}, userId={}, idempotencyKey={}", bookingId, approved, userId, key);
+        return bookingClient.handleBooking(userId, bookingId, approved, key);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                                                   @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsForUser(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
-                                                        @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                        @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                        @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsForUser(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                              @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                              @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                              @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new UnknownStateException(stateParam.toUpperCase()));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getAllBookingsForUser(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+        return bookingClient.getAllBookingsForUser(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsForUserItems(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
-                                                             @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                             @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsForUserItems(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                                                                   @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                                   @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                                   @Positive @RequestParam(defaultValue = "10") Integer size,
+                                                                   @RequestParam(required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new UnknownStateException(stateParam.toUpperCase()));
-        return bookingClient.getAllBookingsForUserItems(userId, state, from, size);
+        return bookingClient.getAllBookingsForUserItems(userId, state, from, size, cursor);
     }
 }
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a body of data buffers to the client as they arrive from the server. Spring MVC runs it on its async
+ * executor, so no request thread waits for the server; one buffer is requested at a time, and a failed write cancels
+ * the rest of the body.
+ */
+public class DataBufferBody implements StreamingResponseBody {
+    private final Flux<DataBuffer> body;
+
+    public DataBufferBody(Flux<DataBuffer> body) {
+        this.body = body;
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        try (Stream<DataBuffer> buffers = body.toStream(1)) {
+            Iterator<DataBuffer> iterator = buffers.iterator();
+            while (iterator.hasNext()) {
+                try (InputStream in = iterator.next().asInputStream(true)) {
+                    in.transferTo(out);
+                }
+                out.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBodyReturnValueHandler;
+
+import java.util.List;
+
+/**
+ * Spring MVC picks the handler of a {@code ResponseEntity} by its declared body type, so the passthrough
+ * {@link DataBufferBody} returned from {@code ResponseEntity<Object>} methods would otherwise go to the message
+ * converters. Returned values are checked before the declared types, and this handler takes those with such a body.
+ */
+@Configuration
+public class DataBufferBodyConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addReturnValueHandlers(List<HandlerMethodReturnValueHandler> handlers) {
+        handlers.add(new DataBufferBodyReturnValueHandler());
+    }
+
+    private static class DataBufferBodyReturnValueHandler extends StreamingResponseBodyReturnValueHandler
+            implements AsyncHandlerMethodReturnValueHandler {
+
+        @Override
+        public boolean supportsReturnType(MethodParameter returnType) {
+            return ResponseEntity.class.isAssignableFrom(returnType.getParameterType());
+        }
+
+        @Override
+        public boolean isAsyncReturnValue(Object returnValue, MethodParameter returnType) {
+            return returnValue instanceof ResponseEntity
+                    && ((ResponseEntity<?>) returnValue).getBody() instanceof DataBufferBody;
+        }
+    }
+}
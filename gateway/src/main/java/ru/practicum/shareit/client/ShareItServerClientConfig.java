@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ShareItServerPoolProperties.class)
+public class ShareItServerClientConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerConnectionProvider(ShareItServerPoolProperties pool) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("shareit-server")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getMaxPendingRequests())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(pool.isMetricsEnabled());
+
+        for (Map.Entry<String, Integer> route : pool.getMaxConnectionsPerRoute().entrySet()) {
+            builder.forRemoteHost(toRemoteAddress(route.getKey()), spec -> spec
+                    .maxConnections(route.getValue())
+                    .pendingAcquireMaxCount(pool.getMaxPendingRequests())
+                    .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                    .maxIdleTime(pool.getMaxIdleTime())
+                    .maxLifeTime(pool.getMaxLifeTime())
+                    .evictInBackground(pool.getEvictionInterval())
+                    .metrics(pool.isMetricsEnabled()));
+        }
+
+        return builder.build();
+    }
+
+    @Bean
+    public WebClientCustomizer shareItServerWebClientCustomizer(ConnectionProvider shareItServerConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(shareItServerConnectionProvider);
+        return builder -> builder.clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+
+    private static InetSocketAddress toRemoteAddress(String route) {
+        int separator = route.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Route must be in host:port format, got \"" + route + "\"");
+        }
+        return InetSocketAddress.createUnresolved(route.substring(0, separator),
+                Integer.parseInt(route.substring(separator + 1)));
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.pool")
+public class ShareItServerPoolProperties {
+
+    private int maxConnections = 500;
+
+    private Map<String, Integer> maxConnectionsPerRoute = new LinkedHashMap<>();
+
+    private int maxPendingRequests = 1000;
+
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    private Duration evictionInterval = Duration.ofSeconds(10);
+
+    private boolean metricsEnabled = true;
+}
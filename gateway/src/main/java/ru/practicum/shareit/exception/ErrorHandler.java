@@ -5,6 +5,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 
 import javax.validation.ConstraintViolationException;
 import java.util.Objects;
@@ -42,4 +43,13 @@ public class ErrorHandler {
                 "Unknown state: " + e.getMessage(),
                 "State must be: ALL, CURRENT, PAST, FUTURE, WAITING, REJECTED");
     }
+
+    @ExceptionHandler(WebClientRequestException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleWebClientRequestException(final WebClientRequestException e) {
+        return new ErrorResponse(
+                503,
+                "Service Unavailable",
+                "ShareIt server is unavailable: " + e.getMessage());
+    }
 }
@@ -2,45 +2,66 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final int IMPORT_BUFFER_SIZE = 8192;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      @Value("${shareit-server.passthrough:true}") boolean passthrough,
+                      WebClient.Builder builder) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                passthrough
         );
     }
 
-    public ResponseEntity<Object> addItem(Long userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> addItem(Long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemUpdateDto itemUpdateDto) {
+    /**
+     * Forwards the upload as it is read, on a worker thread since the servlet input stream blocks.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> importItems(Long userId, MediaType contentType, InputStream body) {
+        Flux<DataBuffer> content = DataBufferUtils.readInputStream(() -> body,
+                        DefaultDataBufferFactory.sharedInstance, IMPORT_BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+        return postStream("/import", userId, contentType, content);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(Long userId, Long itemId, ItemUpdateDto itemUpdateDto) {
         return patch("/" + itemId, userId, itemUpdateDto);
     }
 
-    public ResponseEntity<Object> getItem(Long userId, Long itemId) {
+    public Mono<ResponseEntity<Object>> getItem(Long userId, Long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAllItemsByOwner(Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItemsByOwner(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -48,7 +69,7 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchAvailableItem(String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> searchAvailableItem(String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -57,7 +78,37 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
-    public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentRequestDto commentRequestDto) {
+    public Mono<ResponseEntity<Object>> searchAvailableItemFreeBetween(String text,
+                                                                       LocalDateTime freeFrom,
+                                                                       LocalDateTime freeTo,
+                                                                       Integer from,
+                                                                       Integer size) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        ));
+        StringBuilder path = new StringBuilder("/search?text={text}&from={from}&size={size}");
+        if (freeFrom != null) {
+            parameters.put("freeFrom", freeFrom.toString());
+            path.append("&freeFrom={freeFrom}");
+        }
+        if (freeTo != null) {
+            parameters.put("freeTo", freeTo.toString());
+            path.append("&freeTo={freeTo}");
+        }
+        return get(path.toString(), null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from.toString(),
+                "to", to.toString()
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> addComment(Long userId, Long itemId, CommentRequestDto commentRequestDto) {
         return post("/" + itemId + "/comment", userId, commentRequestDto);
     }
 }
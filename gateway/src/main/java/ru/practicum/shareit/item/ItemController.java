@@ -2,18 +2,30 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.DataBufferBody;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.utility.CustomHeaders;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping(path = "items")
@@ -24,46 +36,94 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
-                                          @Valid @RequestBody ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> addItem(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                                                @Valid @RequestBody ItemRequestDto itemRequestDto) {
         log.info("Creating new item: {}", itemRequestDto);
         return itemClient.addItem(userId, itemRequestDto);
     }
 
+    /**
+     * Relays the upload to the server and its progress lines back to the client as they arrive. The request
+     * thread is released while the server works; the body is copied on the MVC async executor, and an empty
+     * server response becomes 502.
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public Mono<ResponseEntity<StreamingResponseBody>> importItems(
+            @RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            HttpServletRequest request) throws IOException {
+        log.info("Importing items, userId={}, contentType={}", userId, contentType);
+        return itemClient.importItems(userId, contentType, request.getInputStream())
+                .<ResponseEntity<StreamingResponseBody>>map(serverResponse -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.status(serverResponse.getStatusCode());
+                    MediaType responseType = serverResponse.getHeaders().getContentType();
+                    if (responseType != null) {
+                        response.contentType(responseType);
+                    }
+                    Flux<DataBuffer> body = serverResponse.getBody();
+                    if (body == null) {
+                        return response.build();
+                    }
+                    return response.body(new DataBufferBody(body));
+                })
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.BAD_GATEWAY).build());
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
-                                             @PathVariable Long itemId,
-                                             @Valid @RequestBody ItemUpdateDto itemUpdateDto) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                                                   @PathVariable Long itemId,
+                                                   @Valid @RequestBody ItemUpdateDto itemUpdateDto) {
         log.info("Updating item {}", itemUpdateDto);
         return itemClient.updateItem(userId, itemId, itemUpdateDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
-                                          @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> getItem(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                                                @PathVariable Long itemId) {
         log.info("Getting item {}", itemId);
         return itemClient.getItem(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemsByOwner(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
-                                                     @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                     @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItemsByOwner(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                                                           @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                           @Positive @RequestParam(defaultValue = "10") Integer size) {
         log.info("Getting items by owner");
         return itemClient.getAllItemsByOwner(userId, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@PathVariable Long itemId,
+                                                        @RequestParam
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime from,
+                                                        @RequestParam
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime to) {
+        log.info("Getting availability of item {} from {} to {}", itemId, from, to);
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestParam String text,
-                                             @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                             @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> searchItem(@RequestParam(defaultValue = "") String text,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime freeFrom,
+                                                   @RequestParam(required = false)
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime freeTo,
+                                                   @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                   @Positive @RequestParam(defaultValue = "10") Integer size) {
+        if (freeFrom != null || freeTo != null) {
+            return itemClient.searchAvailableItemFreeBetween(text, freeFrom, freeTo, from, size);
+        }
         return itemClient.searchAvailableItem(text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
-                                             @PathVariable Long itemId,
-                                             @Valid @RequestBody CommentRequestDto commentRequestDto) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                                                   @PathVariable Long itemId,
+                                                   @Valid @RequestBody CommentRequestDto commentRequestDto) {
         return itemClient.addComment(userId, itemId, commentRequestDto);
     }
 }
@@ -2,11 +2,10 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestRequestDto;
 
@@ -17,24 +16,26 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl,
+                             @Value("${shareit-server.passthrough:true}") boolean passthrough,
+                             WebClient.Builder builder) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                passthrough
         );
     }
 
-    public ResponseEntity<Object> addRequest(Long userId, ItemRequestRequestDto itemRequestRequestDto) {
+    public Mono<ResponseEntity<Object>> addRequest(Long userId, ItemRequestRequestDto itemRequestRequestDto) {
         return post("/", userId, itemRequestRequestDto);
     }
 
-    public ResponseEntity<Object> getMyRequests(Long userId) {
+    public Mono<ResponseEntity<Object>> getMyRequests(Long userId) {
         return get("/", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllRequests(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -42,7 +43,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequest(Long userId, Long requestId) {
+    public Mono<ResponseEntity<Object>> getRequest(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 }
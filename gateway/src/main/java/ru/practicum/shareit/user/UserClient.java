@@ -2,11 +2,10 @@ package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserNewDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
@@ -18,28 +17,30 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl,
+                      @Value("${shareit-server.passthrough:true}") boolean passthrough,
+                      WebClient.Builder builder) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .build(),
+                passthrough
         );
     }
 
-    public ResponseEntity<Object> createUser(UserNewDto userNewDto) {
+    public Mono<ResponseEntity<Object>> createUser(UserNewDto userNewDto) {
         return post("", userNewDto);
     }
 
-    public ResponseEntity<Object> updateUser(Long userId, UserUpdateDto userUpdateDto) {
+    public Mono<ResponseEntity<Object>> updateUser(Long userId, UserUpdateDto userUpdateDto) {
         return patch("/" + userId, userUpdateDto);
     }
 
-    public ResponseEntity<Object> getUser(Long userId) {
+    public Mono<ResponseEntity<Object>> getUser(Long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> getAllUsers(Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllUsers(Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -48,7 +49,7 @@ public class UserClient extends BaseClient {
     }
 
 
-    public ResponseEntity<Object> deleteUser(Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(Long userId) {
         return delete("/" + userId);
     }
 }
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserNewDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
@@ -22,33 +23,33 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserNewDto userNewDto) {
+    public Mono<ResponseEntity<Object>> createUser(@Valid @RequestBody UserNewDto userNewDto) {
         log.info("Creating user {}", userNewDto);
         return userClient.createUser(userNewDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable Long userId,
-                                             @Valid @RequestBody UserUpdateDto userUpdateDto) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable Long userId,
+                                                   @Valid @RequestBody UserUpdateDto userUpdateDto) {
         log.info("Updating user {}", userUpdateDto);
         return userClient.updateUser(userId, userUpdateDto);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUser(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> getUser(@PathVariable Long userId) {
         log.info("Getting user {}", userId);
         return userClient.getUser(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers(@PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllUsers(@PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(defaultValue = "10") Integer size) {
         log.info("Getting all users");
         return userClient.getAllUsers(from, size);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable Long userId) {
         log.info("Deleting user {}", userId);
         return userClient.deleteUser(userId);
     }
@@ -6,4 +6,6 @@ public final class CustomHeaders {
     }
 
     public static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
 }
@@ -3,40 +3,53 @@ package ru.practicum.shareit.booking;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class BookingClientTest {
     @Mock
-    private RestTemplateBuilder restTemplateBuilder;
-
-    @Mock
-    private RestTemplate restTemplate;
+    private ExchangeFunction exchangeFunction;
 
     private BookingClient bookingClient;
 
     @BeforeEach
     public void setup() {
-        when(restTemplateBuilder.uriTemplateHandler(any())).thenReturn(restTemplateBuilder);
-        when(restTemplateBuilder.requestFactory(any(Supplier.class))).thenReturn(restTemplateBuilder);
-        when(restTemplateBuilder.build()).thenReturn(restTemplate);
-
-        bookingClient = new BookingClient("http://test-server-url", restTemplateBuilder);
+        bookingClient = new BookingClient("http://test-server-url", true, WebClient.builder().exchangeFunction(exchangeFunction));
     }
 
     @Test
@@ -45,14 +58,32 @@ public class BookingClientTest {
         BookingRequestDto requestDto = new BookingRequestDto();
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = bookingClient.addBooking(1L, requestDto);
+        ResponseEntity<Object> actualResponse = bookingClient.addBooking(1L, requestDto).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
+    }
+
+    @Test
+    public void addBookings_IsValid_ReturnsResponseEntity() {
+        // given
+        ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
+
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
+
+        // when
+        ResponseEntity<Object> actualResponse = bookingClient.addBookings(1L,
+                List.of(new BookingRequestDto(), new BookingRequestDto())).block();
+
+        // then
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 
     @Test
@@ -61,14 +92,53 @@ public class BookingClientTest {
         boolean approved = true;
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
+
+        // when
+        ResponseEntity<Object> actualResponse = bookingClient.handleBooking(1L, 1L, approved, "approve-1").block();
+
+        // then
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
+        ArgumentCaptor<ClientRequest> requestCaptor = ArgumentCaptor.forClass(ClientRequest.class);
+        verify(exchangeFunction).exchange(requestCaptor.capture());
+        assertEquals("approve-1", requestCaptor.getValue().headers().getFirst("Idempotency-Key"));
+    }
+
+    @Test
+    public void handleBooking_ServerUnreachable_RetriesWithSameIdempotencyKey() {
+        // given
+        WebClientRequestException connectFailure = new WebClientRequestException(new IOException("Connection refused"),
+                HttpMethod.PATCH, URI.create("http://test-server-url/bookings/1"), new HttpHeaders());
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.error(connectFailure))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = bookingClient.handleBooking(1L, 1L, approved);
+        ResponseEntity<Object> actualResponse = bookingClient.handleBooking(1L, 1L, true, "approve-1").block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(HttpStatus.OK, actualResponse.getStatusCode());
+        ArgumentCaptor<ClientRequest> requestCaptor = ArgumentCaptor.forClass(ClientRequest.class);
+        verify(exchangeFunction, times(2)).exchange(requestCaptor.capture());
+        assertEquals(List.of("approve-1", "approve-1"), requestCaptor.getAllValues().stream()
+                .map(request -> request.headers().getFirst("Idempotency-Key"))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void handleBooking_ServerError_IsNotRetried() {
+        // given
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.CONFLICT).build()));
+
+        // when
+        ResponseEntity<Object> actualResponse = bookingClient.handleBooking(1L, 1L, true, "approve-1").block();
+
+        // then
+        assertEquals(HttpStatus.CONFLICT, actualResponse.getStatusCode());
+        verify(exchangeFunction, times(1)).exchange(any(ClientRequest.class));
     }
 
     @Test
@@ -76,14 +146,15 @@ public class BookingClientTest {
         // given
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = bookingClient.getBooking(1L, 1L);
+        ResponseEntity<Object> actualResponse = bookingClient.getBooking(1L, 1L).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 
     @Test
@@ -92,14 +163,15 @@ public class BookingClientTest {
         BookingState state = BookingState.WAITING;
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class), any(Map.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = bookingClient.getAllBookingsForUser(1L, state, 0, 10);
+        ResponseEntity<Object> actualResponse = bookingClient.getAllBookingsForUser(1L, state, 0, 10, null).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 
     @Test
@@ -108,13 +180,145 @@ public class BookingClientTest {
         BookingState state = BookingState.WAITING;
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class), any(Map.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
+
+        // when
+        ResponseEntity<Object> actualResponse = bookingClient.getAllBookingsForUserItems(1L, state, 0, 10, null).block();
+
+        // then
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
+    }
+
+    @Test
+    public void getAllBookingsForUser_IsValid_SendsUserIdAndExpandedQuery() {
+        // given
+        ArgumentCaptor<ClientRequest> requestCaptor = ArgumentCaptor.forClass(ClientRequest.class);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = bookingClient.getAllBookingsForUserItems(1L, state, 0, 10);
+        bookingClient.getAllBookingsForUser(1L, BookingState.ALL, 0, 10, null).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        verify(exchangeFunction).exchange(requestCaptor.capture());
+        ClientRequest request = requestCaptor.getValue();
+        assertEquals(HttpMethod.GET, request.method());
+        assertEquals("http://test-server-url/bookings?state=ALL&from=0&size=10", request.url().toString());
+        assertEquals("1", request.headers().getFirst("X-Sharer-User-Id"));
+    }
+
+    @Test
+    public void getAllBookingsForUserItems_WithCursor_ForwardsCursor() {
+        // given
+        ArgumentCaptor<ClientRequest> requestCaptor = ArgumentCaptor.forClass(ClientRequest.class);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header("X-Next-Cursor", "next-token")
+                        .build()));
+
+        // when
+        ResponseEntity<Object> actualResponse = bookingClient
+                .getAllBookingsForUserItems(1L, BookingState.ALL, 0, 10, "MjAyNi0xMC0xOFQxMjowMHwx")
+                .block();
+
+        // then
+        verify(exchangeFunction).exchange(requestCaptor.capture());
+        assertEquals("http://test-server-url/bookings/owner?state=ALL&from=0&size=10&cursor=MjAyNi0xMC0xOFQxMjowMHwx",
+                requestCaptor.getValue().url().toString());
+        assertEquals("next-token", actualResponse.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    public void getBooking_ServerReturnsNotFound_ReturnsServerStatusAndBody() throws IOException {
+        // given
+        String body = "{\"status\":404}";
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND)
+                        .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(body.length()))
+                        .body(body)
+                        .build()));
+
+        // when
+        ResponseEntity<Object> actualResponse = bookingClient.getBooking(1L, 1L).block();
+
+        // then
+        assertEquals(HttpStatus.NOT_FOUND, actualResponse.getStatusCode());
+        assertArrayEquals(body.getBytes(), readBody(actualResponse));
+    }
+
+    @Test
+    public void getAllBookingsForUser_Passthrough_ReturnsServerBytesAndHeaders() throws IOException {
+        // given
+        String body = "[{\"id\":1,\"status\":\"WAITING\"}]";
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+                        .body(body)
+                        .build()));
+
+        // when
+        ResponseEntity<Object> actualResponse = bookingClient.getAllBookingsForUser(1L, BookingState.ALL, 0, 10, null)
+                .block();
+
+        // then
+        assertEquals(HttpStatus.OK, actualResponse.getStatusCode());
+        assertArrayEquals(body.getBytes(), readBody(actualResponse));
+        assertEquals(MediaType.APPLICATION_JSON, actualResponse.getHeaders().getContentType());
+        assertFalse(actualResponse.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+    }
+
+    @Test
+    public void getAllBookingsForUser_Passthrough_ReturnsBeforeServerBodyIsComplete() throws IOException {
+        // given
+        Sinks.Many<DataBuffer> body = Sinks.many().unicast().onBackpressureBuffer();
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+                        .body(body.asFlux())
+                        .build()));
+
+        // when
+        ResponseEntity<Object> actualResponse = bookingClient.getAllBookingsForUser(1L, BookingState.ALL, 0, 10, null)
+                .block();
+        body.tryEmitNext(buffer("[{\"id\":1}"));
+        body.tryEmitNext(buffer(",{\"id\":2}]"));
+        body.tryEmitComplete();
+
+        // then
+        assertEquals(HttpStatus.OK, actualResponse.getStatusCode());
+        assertArrayEquals("[{\"id\":1},{\"id\":2}]".getBytes(StandardCharsets.UTF_8), readBody(actualResponse));
+    }
+
+    @Test
+    public void getAllBookingsForUser_PassthroughDisabled_ReturnsDeserializedBody() {
+        // given
+        bookingClient = new BookingClient("http://test-server-url", false, WebClient.builder().exchangeFunction(exchangeFunction));
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("[{\"id\":1}]")
+                        .build()));
+
+        // when
+        ResponseEntity<Object> actualResponse = bookingClient.getAllBookingsForUser(1L, BookingState.ALL, 0, 10, null)
+                .block();
+
+        // then
+        assertEquals(HttpStatus.OK, actualResponse.getStatusCode());
+        assertEquals(List.of(Map.of("id", 1)), actualResponse.getBody());
+    }
+
+    private static byte[] readBody(ResponseEntity<Object> response) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(body);
+        return body.toByteArray();
+    }
+
+    private static DataBuffer buffer(String text) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(text.getBytes(StandardCharsets.UTF_8));
     }
 }
@@ -7,18 +7,34 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.DataBufferBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -42,20 +58,64 @@ class BookingControllerTest {
         Long itemId = 1L;
         BookingRequestDto bookingRequestDto = new BookingRequestDto(start, end, itemId);
         when(bookingClient.addBooking(1L, bookingRequestDto))
-                .thenReturn(new ResponseEntity<>(bookingRequestDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(bookingRequestDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         post("/bookings")
                                 .header("X-SHARER-USER-ID", "1")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(bookingRequestDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.start").isNotEmpty())
                 .andExpect(jsonPath("$.end").isNotEmpty())
                 .andExpect(jsonPath("$.itemId").value(itemId));
     }
 
+    @SneakyThrows
+    @Test
+    void addBookings_IsValid_ReturnsResponseEntity() {
+        // given
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingRequestDto> requestDtos = List.of(new BookingRequestDto(start, start.plusDays(1), 1L),
+                new BookingRequestDto(null, start, 2L));
+        when(bookingClient.addBookings(1L, requestDtos))
+                .thenReturn(Mono.just(new ResponseEntity<>(List.of(Map.of("index", 0, "status", 201),
+                        Map.of("index", 1, "status", 400)), HttpStatus.OK)));
+
+        // then
+        MvcResult mvcResult = mockMvc.perform(
+                        post("/bookings/batch")
+                                .header("X-SHARER-USER-ID", "1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(requestDtos)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[1].status").value(400));
+    }
+
+    @SneakyThrows
+    @Test
+    void addBookings_EmptyBatch_ThrowsBadRequestException() {
+        // then
+        mockMvc.perform(
+                        post("/bookings/batch")
+                                .header("X-SHARER-USER-ID", "1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("400"));
+        verifyNoInteractions(bookingClient);
+    }
+
     @SneakyThrows
     @Test
     void addBooking_startIsPast_ThrowsBadRequestException() {
@@ -194,21 +254,61 @@ class BookingControllerTest {
         Long itemId = 1L;
         BookingRequestDto bookingRequestDto = new BookingRequestDto(start, end, itemId);
         boolean approved = true;
-        when(bookingClient.handleBooking(1L, 1L, approved))
-                .thenReturn(new ResponseEntity<>(bookingRequestDto, HttpStatus.OK));
+        when(bookingClient.handleBooking(1L, 1L, approved, "approve-1"))
+                .thenReturn(Mono.just(new ResponseEntity<>(bookingRequestDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         patch("/bookings/{bookingId}", 1L)
                                 .header("X-SHARER-USER-ID", "1")
+                                .header("Idempotency-Key", "approve-1")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .param("approved", String.valueOf(approved)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.start").isNotEmpty())
                 .andExpect(jsonPath("$.end").isNotEmpty())
                 .andExpect(jsonPath("$.itemId").value(itemId));
     }
 
+    @SneakyThrows
+    @Test
+    void handleBooking_WithoutIdempotencyKey_GeneratesOne() {
+        // given
+        when(bookingClient.handleBooking(eq(1L), eq(1L), eq(true), anyString()))
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.OK)));
+
+        // then
+        MvcResult mvcResult = mockMvc.perform(
+                        patch("/bookings/{bookingId}", 1L)
+                                .header("X-SHARER-USER-ID", "1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .param("approved", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+        verify(bookingClient).handleBooking(eq(1L), eq(1L), eq(true), matches("[0-9a-f-]{36}"));
+    }
+
+    @SneakyThrows
+    @Test
+    void handleBooking_IdempotencyKeyTooLong_ReturnsBadRequest() {
+        // then
+        mockMvc.perform(
+                        patch("/bookings/{bookingId}", 1L)
+                                .header("X-SHARER-USER-ID", "1")
+                                .header("Idempotency-Key", "k".repeat(65))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .param("approved", "true"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookingClient);
+    }
+
     @SneakyThrows
     @Test
     void getBooking_IsValid_ReturnsResponseEntity() {
@@ -218,13 +318,17 @@ class BookingControllerTest {
         Long itemId = 1L;
         BookingRequestDto bookingRequestDto = new BookingRequestDto(start, end, itemId);
         when(bookingClient.getBooking(1L, 1L))
-                .thenReturn(new ResponseEntity<>(bookingRequestDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(bookingRequestDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         get("/bookings/{bookingId}", 1L)
                                 .header("X-SHARER-USER-ID", "1")
                                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.start").isNotEmpty())
                 .andExpect(jsonPath("$.end").isNotEmpty())
@@ -240,23 +344,58 @@ class BookingControllerTest {
         Long itemId = 1L;
         BookingRequestDto bookingRequestDto = new BookingRequestDto(start, end, itemId);
 
-        when(bookingClient.getAllBookingsForUser(1L, BookingState.valueOf("WAITING"), 0, 10))
-                .thenReturn(new ResponseEntity<>(bookingRequestDto, HttpStatus.OK));
+        when(bookingClient.getAllBookingsForUser(1L, BookingState.valueOf("WAITING"), 0, 10, null))
+                .thenReturn(Mono.just(new ResponseEntity<>(bookingRequestDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         get("/bookings")
                                 .header("X-SHARER-USER-ID", "1")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .param("state", "WAITING")
                                 .param("from", "0")
                                 .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.start").isNotEmpty())
                 .andExpect(jsonPath("$.end").isNotEmpty())
                 .andExpect(jsonPath("$.itemId").value(itemId));
     }
 
+    @SneakyThrows
+    @Test
+    void getAllBookingsForUser_PassthroughBody_StreamsServerBytes() {
+        // given
+        String body = "[{\"id\":1,\"status\":\"WAITING\"}]";
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8));
+        when(bookingClient.getAllBookingsForUser(1L, BookingState.ALL, 0, 10, null))
+                .thenReturn(Mono.just(ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(new DataBufferBody(Flux.just(buffer)))));
+
+        // then
+        MvcResult mvcResult = mockMvc.perform(
+                        get("/bookings")
+                                .header("X-SHARER-USER-ID", "1")
+                                .param("from", "0")
+                                .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult streamed = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        streamed.getAsyncResult();
+
+        mockMvc.perform(asyncDispatch(streamed))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(body));
+    }
+
     @SneakyThrows
     @Test
     void getAllBookingsForUser_pageArgumentsWrong_ThrowsConstraintViolationException() {
@@ -299,17 +438,21 @@ class BookingControllerTest {
         Long itemId = 1L;
         BookingRequestDto bookingRequestDto = new BookingRequestDto(start, end, itemId);
 
-        when(bookingClient.getAllBookingsForUserItems(1L, BookingState.valueOf("WAITING"), 0, 10))
-                .thenReturn(new ResponseEntity<>(bookingRequestDto, HttpStatus.OK));
+        when(bookingClient.getAllBookingsForUserItems(1L, BookingState.valueOf("WAITING"), 0, 10, null))
+                .thenReturn(Mono.just(new ResponseEntity<>(bookingRequestDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         get("/bookings/owner")
                                 .header("X-SHARER-USER-ID", "1")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .param("state", "WAITING")
                                 .param("from", "0")
                                 .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.start").isNotEmpty())
                 .andExpect(jsonPath("$.end").isNotEmpty())
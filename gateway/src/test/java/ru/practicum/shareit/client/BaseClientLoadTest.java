@@ -0,0 +1,128 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "server.tomcat.threads.max=" + BaseClientLoadTest.GATEWAY_WORKER_THREADS,
+                "server.tomcat.threads.min-spare=1"
+        })
+class BaseClientLoadTest {
+    static final int GATEWAY_WORKER_THREADS = 4;
+    private static final int IN_FLIGHT_REQUESTS = 64;
+    private static final Duration SERVER_HOLD_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger peakInFlight = new AtomicInteger();
+    private static final CountDownLatch allArrived = new CountDownLatch(IN_FLIGHT_REQUESTS);
+
+    private static ExecutorService serverExecutor;
+    private static HttpServer shareItServerStub;
+
+    @LocalServerPort
+    private int gatewayPort;
+
+    @BeforeAll
+    static void startShareItServerStub() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        shareItServerStub = HttpServer.create(new InetSocketAddress("localhost", 0), IN_FLIGHT_REQUESTS);
+        shareItServerStub.createContext("/", BaseClientLoadTest::holdUntilAllArrived);
+        shareItServerStub.setExecutor(serverExecutor);
+        shareItServerStub.start();
+    }
+
+    @AfterAll
+    static void stopShareItServerStub() {
+        shareItServerStub.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @DynamicPropertySource
+    static void shareItServerUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + shareItServerStub.getAddress().getPort());
+    }
+
+    @Test
+    void gatewayKeepsMoreRequestsInFlightThanWorkerThreads() {
+        // given
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + gatewayPort + "/users"))
+                .GET()
+                .build();
+
+        // when
+        List<CompletableFuture<Long>> latencies = new ArrayList<>();
+        for (int i = 0; i < IN_FLIGHT_REQUESTS; i++) {
+            long startedAt = System.nanoTime();
+            latencies.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> {
+                        assertEquals(200, response.statusCode());
+                        assertEquals("[]", response.body());
+                        assertEquals(Optional.of("application/json"), response.headers().firstValue("Content-Type"));
+                        return System.nanoTime() - startedAt;
+                    }));
+        }
+        long[] sortedLatencies = latencies.stream()
+                .map(CompletableFuture::join)
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+        Duration p99 = Duration.ofNanos(sortedLatencies[(int) Math.ceil(sortedLatencies.length * 0.99) - 1]);
+
+        // then
+        assertEquals(IN_FLIGHT_REQUESTS, peakInFlight.get(),
+                "every request must reach the server while " + GATEWAY_WORKER_THREADS + " worker threads are busy");
+        assertTrue(p99.compareTo(SERVER_HOLD_TIMEOUT) < 0, "p99 latency " + p99 + " hit the server hold timeout");
+    }
+
+    private static void holdUntilAllArrived(HttpExchange exchange) throws IOException {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        allArrived.countDown();
+        try {
+            allArrived.await(SERVER_HOLD_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+        inFlight.decrementAndGet();
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ShareItServerClientConfigTest {
+    private static final int ROUTE_MAX_CONNECTIONS = 2;
+    private static final int CONCURRENT_REQUESTS = 10;
+    private static final int DEFAULT_CODEC_LIMIT = 256 * 1024;
+    private static final int LARGE_BODY_USERS = 10_000;
+    private static final byte[] LARGE_BODY = largeUserList();
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private static ExecutorService serverExecutor;
+    private static HttpServer shareItServerStub;
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Value("${shareit-server.url}")
+    private String serverUrl;
+
+    @BeforeAll
+    static void startShareItServerStub() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        shareItServerStub = HttpServer.create(new InetSocketAddress("localhost", 0), CONCURRENT_REQUESTS);
+        shareItServerStub.createContext("/", ShareItServerClientConfigTest::respondSlowly);
+        shareItServerStub.setExecutor(serverExecutor);
+        shareItServerStub.start();
+    }
+
+    @AfterAll
+    static void stopShareItServerStub() {
+        shareItServerStub.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @DynamicPropertySource
+    static void shareItServerRoute(DynamicPropertyRegistry registry) {
+        String route = "localhost:" + shareItServerStub.getAddress().getPort();
+        registry.add("shareit-server.url", () -> "http://" + route);
+        registry.add("shareit-server.pool.max-connections-per-route[" + route + "]", () -> ROUTE_MAX_CONNECTIONS);
+    }
+
+    @Test
+    void requestsToRouteAreCappedByRouteMaximum() {
+        // when
+        List<ResponseEntity<Object>> responses = Flux.range(0, CONCURRENT_REQUESTS)
+                .flatMap(i -> userClient.getUser((long) i)
+                        // the connection is released once the body is relayed, which MVC does off the event loop
+                        .publishOn(Schedulers.boundedElastic())
+                        .doOnNext(response -> assertEquals("{}", new String(readBody(response),
+                                StandardCharsets.UTF_8))))
+                .collectList()
+                .block();
+
+        // then
+        assertNotNull(responses);
+        assertEquals(CONCURRENT_REQUESTS, responses.size());
+        responses.forEach(response -> assertEquals(HttpStatus.OK, response.getStatusCode()));
+        assertTrue(peakInFlight.get() <= ROUTE_MAX_CONNECTIONS,
+                "peak in-flight " + peakInFlight.get() + " exceeded route maximum " + ROUTE_MAX_CONNECTIONS);
+
+        Gauge maxConnections = meterRegistry.find("reactor.netty.connection.provider.max.connections")
+                .tag("name", "shareit-server")
+                .tag("remote.address", "localhost:" + shareItServerStub.getAddress().getPort())
+                .gauge();
+        assertNotNull(maxConnections);
+        assertEquals(ROUTE_MAX_CONNECTIONS, maxConnections.value());
+    }
+
+    @Test
+    void responsesLargerThanDefaultCodecLimitAreRelayed() {
+        // given
+        UserClient gatewayClient = new UserClient(serverUrl, false, webClientBuilder.clone());
+
+        // when
+        ResponseEntity<Object> passedThrough = userClient.getAllUsers(0, Integer.MAX_VALUE).block();
+        ResponseEntity<Object> decoded = gatewayClient.getAllUsers(0, Integer.MAX_VALUE).block();
+
+        // then
+        assertTrue(LARGE_BODY.length > DEFAULT_CODEC_LIMIT);
+        assertNotNull(passedThrough);
+        assertEquals(HttpStatus.OK, passedThrough.getStatusCode());
+        assertEquals(LARGE_BODY.length, readBody(passedThrough).length);
+        assertNotNull(decoded);
+        assertEquals(HttpStatus.OK, decoded.getStatusCode());
+        assertEquals(LARGE_BODY_USERS, ((List<?>) decoded.getBody()).size());
+    }
+
+    private static byte[] readBody(ResponseEntity<Object> response) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            ((StreamingResponseBody) response.getBody()).writeTo(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return body.toByteArray();
+    }
+
+    private static void respondSlowly(HttpExchange exchange) throws IOException {
+        if (exchange.getRequestURI().getQuery() != null) {
+            respond(exchange, LARGE_BODY);
+            return;
+        }
+
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        inFlight.decrementAndGet();
+
+        respond(exchange, "{}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    private static byte[] largeUserList() {
+        return IntStream.range(0, LARGE_BODY_USERS)
+                .mapToObj(i -> "{\"id\":" + i + ",\"name\":\"user" + i + "\",\"email\":\"user" + i + "@example.com\"}")
+                .collect(Collectors.joining(",", "[", "]"))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
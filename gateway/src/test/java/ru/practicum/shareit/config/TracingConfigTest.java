@@ -0,0 +1,136 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.tracing.TracingConfig;
+import ru.practicum.shareit.utility.CustomHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "shareit.tracing.file=" + TracingConfigTest.SPAN_FILE,
+                "spring.sleuth.sampler.probability=1.0"
+        })
+class TracingConfigTest {
+    static final String SPAN_FILE = "target/traces/tracing-config-test.jsonl";
+
+    private static final BlockingQueue<String> forwardedTraceparents = new LinkedBlockingQueue<>();
+    private static HttpServer shareItServerStub;
+
+    @LocalServerPort
+    private int gatewayPort;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void startShareItServerStub() throws IOException {
+        shareItServerStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        shareItServerStub.createContext("/", TracingConfigTest::recordTraceparent);
+        shareItServerStub.start();
+    }
+
+    @AfterAll
+    static void stopShareItServerStub() {
+        shareItServerStub.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void shareItServerUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + shareItServerStub.getAddress().getPort());
+    }
+
+    @Test
+    void forwardedRequest_CarriesGatewayTraceToServer() throws Exception {
+        // given
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + gatewayPort + "/users/7"))
+                .header(CustomHeaders.X_SHARER_USER_ID, "7")
+                .GET()
+                .build();
+
+        // when
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request,
+                HttpResponse.BodyHandlers.ofString());
+
+        // then
+        assertEquals(200, response.statusCode());
+        String traceparent = forwardedTraceparents.poll(5, TimeUnit.SECONDS);
+        assertNotNull(traceparent, "traceparent forwarded");
+        String[] parts = traceparent.split("-");
+        String traceId = parts[1];
+        String forwardingSpanId = parts[2];
+
+        List<JsonNode> spans = awaitSpans(traceId, 3);
+        JsonNode serverSpan = spans.stream().filter(span -> "SERVER".equals(span.path("kind").asText()))
+                .findFirst().orElseThrow();
+        JsonNode forwardingSpan = spans.stream().filter(span -> "CLIENT".equals(span.path("kind").asText()))
+                .findFirst().orElseThrow();
+        assertEquals("getUser", serverSpan.path("tags").path("mvc.controller.method").asText());
+        assertEquals("7", serverSpan.path("tags").path(TracingConfig.USER_ID_TAG).asText());
+        assertEquals("shareit-gateway", serverSpan.path("localEndpoint").path("serviceName").asText());
+        assertEquals(forwardingSpanId, forwardingSpan.path("id").asText());
+        assertEquals(serverSpan.path("id").asText(), forwardingSpan.path("parentId").asText());
+        assertEquals("/users/7", forwardingSpan.path("tags").path("http.path").asText());
+    }
+
+    // The forwarding span ends once the response body has been relayed, which can be after the client has it; the
+    // relay itself runs on the MVC async executor and gets a span of its own.
+    private List<JsonNode> awaitSpans(String traceId, int count) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<JsonNode> spans = new ArrayList<>();
+        while (spans.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            spans.clear();
+            for (String line : Files.readAllLines(Path.of(SPAN_FILE))) {
+                JsonNode span = objectMapper.readTree(line);
+                if (traceId.equals(span.path("traceId").asText())) {
+                    spans.add(span);
+                }
+            }
+        }
+        assertEquals(count, spans.size(), "spans of trace " + traceId);
+        return spans;
+    }
+
+    private static void recordTraceparent(HttpExchange exchange) throws IOException {
+        String traceparent = exchange.getRequestHeaders().getFirst("traceparent");
+        if (traceparent != null) {
+            forwardedTraceparents.add(traceparent);
+        }
+        byte[] body = "{\"id\":7}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
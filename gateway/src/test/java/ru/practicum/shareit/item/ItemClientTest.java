@@ -3,41 +3,44 @@ package ru.practicum.shareit.item;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.HttpMethod;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
-import java.util.Map;
-import java.util.function.Supplier;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class ItemClientTest {
     @Mock
-    private RestTemplateBuilder restTemplateBuilder;
-
-    @Mock
-    private RestTemplate restTemplate;
+    private ExchangeFunction exchangeFunction;
 
     private ItemClient itemClient;
 
     @BeforeEach
     public void setup() {
-        when(restTemplateBuilder.uriTemplateHandler(any())).thenReturn(restTemplateBuilder);
-        when(restTemplateBuilder.requestFactory(any(Supplier.class))).thenReturn(restTemplateBuilder);
-        when(restTemplateBuilder.build()).thenReturn(restTemplate);
-
-        itemClient = new ItemClient("http://test-server-url", restTemplateBuilder);
+        itemClient = new ItemClient("http://test-server-url", true, WebClient.builder().exchangeFunction(exchangeFunction));
     }
 
     @Test
@@ -46,14 +49,15 @@ public class ItemClientTest {
         ItemRequestDto itemRequestDto = new ItemRequestDto();
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = itemClient.addItem(1L, itemRequestDto);
+        ResponseEntity<Object> actualResponse = itemClient.addItem(1L, itemRequestDto).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 
     @Test
@@ -62,14 +66,15 @@ public class ItemClientTest {
         ItemUpdateDto itemUpdateDto = new ItemUpdateDto();
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = itemClient.updateItem(1L, 1L, itemUpdateDto);
+        ResponseEntity<Object> actualResponse = itemClient.updateItem(1L, 1L, itemUpdateDto).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 
     @Test
@@ -77,14 +82,15 @@ public class ItemClientTest {
         // given
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = itemClient.getItem(1L, 1L);
+        ResponseEntity<Object> actualResponse = itemClient.getItem(1L, 1L).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 
     @Test
@@ -92,14 +98,15 @@ public class ItemClientTest {
         // given
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class), any(Map.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = itemClient.getAllItemsByOwner(1L, 0, 10);
+        ResponseEntity<Object> actualResponse = itemClient.getAllItemsByOwner(1L, 0, 10).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 
     @Test
@@ -107,14 +114,79 @@ public class ItemClientTest {
         // given
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class), any(Map.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
+
+        // when
+        ResponseEntity<Object> actualResponse = itemClient.searchAvailableItem("text", 0, 10).block();
+
+        // then
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
+    }
+
+    @Test
+    public void searchAvailableItemFreeBetween_IsValid_SendsPeriod() {
+        // given
+        LocalDateTime freeFrom = LocalDateTime.of(2030, 6, 1, 10, 0);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
+
+        // when
+        ResponseEntity<Object> actualResponse = itemClient.searchAvailableItemFreeBetween("text", freeFrom,
+                freeFrom.plusDays(1), 0, 10).block();
+
+        // then
+        assertEquals(HttpStatus.OK, actualResponse.getStatusCode());
+        ArgumentCaptor<ClientRequest> request = ArgumentCaptor.forClass(ClientRequest.class);
+        verify(exchangeFunction).exchange(request.capture());
+        assertEquals("/items/search?text=text&from=0&size=10&freeFrom=2030-06-01T10:00&freeTo=2030-06-02T10:00",
+                request.getValue().url().getPath() + "?" + request.getValue().url().getQuery());
+    }
+
+    @Test
+    public void getAvailability_IsValid_ReturnsResponseEntity() {
+        // given
+        LocalDateTime from = LocalDateTime.of(2030, 6, 1, 10, 0);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
+
+        // when
+        ResponseEntity<Object> actualResponse = itemClient.getAvailability(1L, from, from.plusHours(2)).block();
+
+        // then
+        assertEquals(HttpStatus.OK, actualResponse.getStatusCode());
+        ArgumentCaptor<ClientRequest> request = ArgumentCaptor.forClass(ClientRequest.class);
+        verify(exchangeFunction).exchange(request.capture());
+        assertEquals("/items/1/availability", request.getValue().url().getPath());
+    }
+
+    @Test
+    public void importItems_IsValid_StreamsServerResponse() {
+        // given
+        MediaType ndjson = MediaType.parseMediaType("application/x-ndjson");
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, ndjson.toString())
+                        .body("{\"processed\":1,\"imported\":1,\"failed\":0,\"done\":true}\n")
+                        .build()));
 
         // when
-        ResponseEntity<Object> actualResponse = itemClient.searchAvailableItem("text", 0, 10);
+        ResponseEntity<Flux<DataBuffer>> actualResponse = itemClient.importItems(1L, ndjson,
+                new ByteArrayInputStream("{\"name\":\"item\"}\n".getBytes(StandardCharsets.UTF_8))).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(HttpStatus.OK, actualResponse.getStatusCode());
+        assertEquals(ndjson, actualResponse.getHeaders().getContentType());
+        assertEquals("{\"processed\":1,\"imported\":1,\"failed\":0,\"done\":true}\n",
+                DataBufferUtils.join(actualResponse.getBody())
+                        .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                        .block());
+        ArgumentCaptor<ClientRequest> request = ArgumentCaptor.forClass(ClientRequest.class);
+        verify(exchangeFunction).exchange(request.capture());
+        assertEquals("/items/import", request.getValue().url().getPath());
+        assertEquals(ndjson, request.getValue().headers().getContentType());
+        assertEquals("1", request.getValue().headers().getFirst("X-Sharer-User-Id"));
     }
 
     @Test
@@ -123,13 +195,14 @@ public class ItemClientTest {
         CommentRequestDto commentRequestDto = new CommentRequestDto();
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = itemClient.addComment(1L, 1L, commentRequestDto);
+        ResponseEntity<Object> actualResponse = itemClient.addComment(1L, 1L, commentRequestDto).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 }
@@ -7,18 +7,38 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.user.dto.UserNewDto;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
@@ -43,14 +63,18 @@ class ItemControllerTest {
         itemRequestDto.setDescription("description");
         itemRequestDto.setAvailable(true);
         when(itemClient.addItem(1L, itemRequestDto))
-                .thenReturn(new ResponseEntity<>(itemRequestDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(itemRequestDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         post("/items")
                                 .header("X-SHARER-USER-ID", "1")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(itemRequestDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("item"))
                 .andExpect(jsonPath("$.description").value("description"));
@@ -129,14 +153,18 @@ class ItemControllerTest {
         itemUpdateDto.setName("item");
         itemUpdateDto.setDescription("description");
         when(itemClient.updateItem(1L, 1L, itemUpdateDto))
-                .thenReturn(new ResponseEntity<>(itemUpdateDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(itemUpdateDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         patch("/items/{itemId}", 1L)
                                 .header("X-SHARER-USER-ID", "1")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(itemUpdateDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("item"))
                 .andExpect(jsonPath("$.description").value("description"));
@@ -150,13 +178,17 @@ class ItemControllerTest {
         itemUpdateDto.setName("item");
         itemUpdateDto.setDescription("description");
         when(itemClient.getItem(1L, 1L))
-                .thenReturn(new ResponseEntity<>(itemUpdateDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(itemUpdateDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         get("/items/{itemId}", 1L)
                                 .header("X-SHARER-USER-ID", "1")
                                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("item"))
                 .andExpect(jsonPath("$.description").value("description"));
@@ -169,14 +201,18 @@ class ItemControllerTest {
         CommentRequestDto commentRequestDto = new CommentRequestDto();
         commentRequestDto.setText("comment");
         when(itemClient.addComment(1L, 1L, commentRequestDto))
-                .thenReturn(new ResponseEntity<>(commentRequestDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(commentRequestDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         post("/items/{itemId}/comment", 1L)
                                 .header("X-SHARER-USER-ID", "1")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(commentRequestDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.text").value("comment"));
     }
@@ -213,15 +249,19 @@ class ItemControllerTest {
         itemRequestDto.setAvailable(true);
 
         when(itemClient.getAllItemsByOwner(1L, 0, 10))
-                .thenReturn(new ResponseEntity<>(itemRequestDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(itemRequestDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         get("/items")
                                 .header("X-SHARER-USER-ID", "1")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .param("from", "0")
                                 .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("name"))
                 .andExpect(jsonPath("$.description").value("description"))
@@ -269,22 +309,147 @@ class ItemControllerTest {
         itemRequestDto.setAvailable(true);
 
         when(itemClient.searchAvailableItem("iTe", 0, 10))
-                .thenReturn(new ResponseEntity<>(itemRequestDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(itemRequestDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         get("/items/search")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .header("X-SHARER-USER-ID", "1")
                                 .param("text", "iTe")
                                 .param("from", "0")
                                 .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("name"))
                 .andExpect(jsonPath("$.description").value("item"))
                 .andExpect(jsonPath("$.available").value("true"));
     }
 
+    @SneakyThrows
+    @Test
+    void searchItem_FreePeriodGiven_SearchesFreeItems() {
+        // given
+        LocalDateTime freeFrom = LocalDateTime.of(2030, 6, 1, 10, 0);
+        when(itemClient.searchAvailableItemFreeBetween("iTe", freeFrom, freeFrom.plusDays(1), 0, 10))
+                .thenReturn(Mono.just(new ResponseEntity<>(List.of(), HttpStatus.OK)));
+
+        // then
+        MvcResult mvcResult = mockMvc.perform(
+                        get("/items/search")
+                                .header("X-SHARER-USER-ID", "1")
+                                .param("text", "iTe")
+                                .param("freeFrom", "2030-06-01T10:00:00")
+                                .param("freeTo", "2030-06-02T10:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+        verify(itemClient, never()).searchAvailableItem(anyString(), anyInt(), anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getAvailability_IsValid_ReturnsResponseEntity() {
+        // given
+        LocalDateTime from = LocalDateTime.of(2030, 6, 1, 10, 0);
+        when(itemClient.getAvailability(1L, from, from.plusHours(2)))
+                .thenReturn(Mono.just(new ResponseEntity<>(Map.of("itemId", 1, "free", true), HttpStatus.OK)));
+
+        // then
+        MvcResult mvcResult = mockMvc.perform(
+                        get("/items/1/availability")
+                                .header("X-SHARER-USER-ID", "1")
+                                .param("from", "2030-06-01T10:00:00")
+                                .param("to", "2030-06-01T12:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.free").value(true));
+    }
+
+    @SneakyThrows
+    @Test
+    void getAvailability_PeriodMissing_ReturnsBadRequest() {
+        // then
+        mockMvc.perform(
+                        get("/items/1/availability")
+                                .header("X-SHARER-USER-ID", "1")
+                                .param("from", "2030-06-01T10:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_IsValid_StreamsServerResponse() {
+        // given
+        MediaType ndjson = MediaType.parseMediaType("application/x-ndjson");
+        String progress = "{\"row\":1,\"error\":\"name: must not be blank\"}\n" +
+                "{\"processed\":1,\"imported\":0,\"failed\":1,\"done\":true}\n";
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(progress.getBytes(StandardCharsets.UTF_8));
+        when(itemClient.importItems(eq(1L), argThat(type -> type.isCompatibleWith(ndjson)), any()))
+                .thenReturn(Mono.just(ResponseEntity.ok().contentType(ndjson).body(Flux.just(buffer))));
+
+        // then
+        MvcResult mvcResult = mockMvc.perform(
+                        post("/items/import")
+                                .header("X-SHARER-USER-ID", "1")
+                                .contentType(ndjson)
+                                .content("{\"name\":\"\"}\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        MvcResult streamed = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        streamed.getAsyncResult();
+
+        mockMvc.perform(asyncDispatch(streamed))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ndjson))
+                .andExpect(content().string(progress));
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_EmptyServerResponse_ReturnsBadGateway() {
+        // given
+        when(itemClient.importItems(eq(1L), any(), any())).thenReturn(Mono.empty());
+
+        // then
+        MvcResult mvcResult = mockMvc.perform(
+                        post("/items/import")
+                                .header("X-SHARER-USER-ID", "1")
+                                .contentType("text/csv")
+                                .content("name,description,available\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isBadGateway());
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_UnsupportedContentType_ReturnsUnsupportedMediaType() {
+        // then
+        mockMvc.perform(
+                        post("/items/import")
+                                .header("X-SHARER-USER-ID", "1")
+                                .contentType(MediaType.APPLICATION_XML)
+                                .content("<items/>"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(itemClient);
+    }
+
     @SneakyThrows
     @Test
     void searchItem_pageArgumentsWrong_ThrowsConstraintViolationException() {
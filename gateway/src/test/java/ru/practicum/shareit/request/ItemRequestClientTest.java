@@ -5,37 +5,29 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestRequestDto;
 
-import java.util.Map;
-import java.util.function.Supplier;
-
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class ItemRequestClientTest {
     @Mock
-    private RestTemplateBuilder restTemplateBuilder;
-
-    @Mock
-    private RestTemplate restTemplate;
+    private ExchangeFunction exchangeFunction;
 
     private ItemRequestClient itemRequestClient;
 
     @BeforeEach
     public void setup() {
-        when(restTemplateBuilder.uriTemplateHandler(any())).thenReturn(restTemplateBuilder);
-        when(restTemplateBuilder.requestFactory(any(Supplier.class))).thenReturn(restTemplateBuilder);
-        when(restTemplateBuilder.build()).thenReturn(restTemplate);
-
-        itemRequestClient = new ItemRequestClient("http://test-server-url", restTemplateBuilder);
+        itemRequestClient = new ItemRequestClient("http://test-server-url", true, WebClient.builder().exchangeFunction(exchangeFunction));
     }
 
     @Test
@@ -44,14 +36,15 @@ public class ItemRequestClientTest {
         ItemRequestRequestDto itemRequestRequestDto = new ItemRequestRequestDto();
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = itemRequestClient.addRequest(1L, itemRequestRequestDto);
+        ResponseEntity<Object> actualResponse = itemRequestClient.addRequest(1L, itemRequestRequestDto).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 
     @Test
@@ -59,14 +52,15 @@ public class ItemRequestClientTest {
         // given
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = itemRequestClient.getMyRequests(1L);
+        ResponseEntity<Object> actualResponse = itemRequestClient.getMyRequests(1L).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 
     @Test
@@ -74,14 +68,15 @@ public class ItemRequestClientTest {
         // given
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class), any(Map.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = itemRequestClient.getAllRequests(1L, 0, 10);
+        ResponseEntity<Object> actualResponse = itemRequestClient.getAllRequests(1L, 0, 10).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 
     @Test
@@ -89,13 +84,14 @@ public class ItemRequestClientTest {
         // given
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = itemRequestClient.getRequest(1L, 1L);
+        ResponseEntity<Object> actualResponse = itemRequestClient.getRequest(1L, 1L).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 }
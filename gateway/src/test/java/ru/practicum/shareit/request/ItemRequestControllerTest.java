@@ -11,12 +11,16 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestRequestDto;
 
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
@@ -38,14 +42,18 @@ class ItemRequestControllerTest {
         // given
         ItemRequestRequestDto itemRequestRequestDto = new ItemRequestRequestDto("description");
         when(itemRequestClient.addRequest(1L, itemRequestRequestDto))
-                .thenReturn(new ResponseEntity<>(itemRequestRequestDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(itemRequestRequestDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         post("/requests")
                                 .header("X-SHARER-USER-ID", "1")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(itemRequestRequestDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.description").value("description"));
     }
@@ -56,13 +64,17 @@ class ItemRequestControllerTest {
         // given
         ItemRequestRequestDto itemRequestRequestDto = new ItemRequestRequestDto("description");
         when(itemRequestClient.getMyRequests(1L))
-                .thenReturn(new ResponseEntity<>(itemRequestRequestDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(itemRequestRequestDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         get("/requests")
                                 .header("X-SHARER-USER-ID", "1")
                                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.description").value("description"));
     }
@@ -73,15 +85,19 @@ class ItemRequestControllerTest {
         // given
         ItemRequestRequestDto itemRequestRequestDto = new ItemRequestRequestDto("description");
         when(itemRequestClient.getAllRequests(1L, 0, 10))
-                .thenReturn(new ResponseEntity<>(itemRequestRequestDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(itemRequestRequestDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         get("/requests/all")
                                 .header("X-SHARER-USER-ID", "1")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .param("from", "0")
                                 .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.description").value("description"));
     }
@@ -93,13 +109,17 @@ class ItemRequestControllerTest {
         ItemRequestRequestDto itemRequestRequestDto = new ItemRequestRequestDto("description");
 
         when(itemRequestClient.getRequest(1L, 1L))
-                .thenReturn(new ResponseEntity<>(itemRequestRequestDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(itemRequestRequestDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         get("/requests/{requestId}", 1L)
                                 .header("X-SHARER-USER-ID", "1")
                                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.description").value("description"));
     }
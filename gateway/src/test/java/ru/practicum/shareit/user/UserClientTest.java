@@ -5,38 +5,30 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserNewDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
-import java.util.Map;
-import java.util.function.Supplier;
-
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class UserClientTest {
     @Mock
-    private RestTemplateBuilder restTemplateBuilder;
-
-    @Mock
-    private RestTemplate restTemplate;
+    private ExchangeFunction exchangeFunction;
 
     private UserClient userClient;
 
     @BeforeEach
     public void setup() {
-        when(restTemplateBuilder.uriTemplateHandler(any())).thenReturn(restTemplateBuilder);
-        when(restTemplateBuilder.requestFactory(any(Supplier.class))).thenReturn(restTemplateBuilder);
-        when(restTemplateBuilder.build()).thenReturn(restTemplate);
-
-        userClient = new UserClient("http://test-server-url", restTemplateBuilder);
+        userClient = new UserClient("http://test-server-url", true, WebClient.builder().exchangeFunction(exchangeFunction));
     }
 
     @Test
@@ -45,14 +37,15 @@ public class UserClientTest {
         UserNewDto userNewDto = new UserNewDto();
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = userClient.createUser(userNewDto);
+        ResponseEntity<Object> actualResponse = userClient.createUser(userNewDto).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 
     @Test
@@ -61,14 +54,15 @@ public class UserClientTest {
         UserUpdateDto userUpdateDto = new UserUpdateDto();
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = userClient.updateUser(1L, userUpdateDto);
+        ResponseEntity<Object> actualResponse = userClient.updateUser(1L, userUpdateDto).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 
     @Test
@@ -76,14 +70,15 @@ public class UserClientTest {
         // given
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = userClient.getUser(1L);
+        ResponseEntity<Object> actualResponse = userClient.getUser(1L).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 
     @Test
@@ -91,14 +86,15 @@ public class UserClientTest {
         // given
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class), any(Map.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = userClient.getAllUsers(0, 10);
+        ResponseEntity<Object> actualResponse = userClient.getAllUsers(0, 10).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 
     @Test
@@ -106,13 +102,14 @@ public class UserClientTest {
         // given
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok().build();
 
-        when(restTemplate.exchange(anyString(), any(HttpMethod.class), any(), any(Class.class)))
-                .thenReturn(expectedResponse);
+        when(exchangeFunction.exchange(any(ClientRequest.class)))
+                .thenReturn(Mono.just(ClientResponse.create(HttpStatus.OK).build()));
 
         // when
-        ResponseEntity<Object> actualResponse = userClient.deleteUser(1L);
+        ResponseEntity<Object> actualResponse = userClient.deleteUser(1L).block();
 
         // then
-        assertEquals(expectedResponse, actualResponse);
+        assertEquals(expectedResponse.getStatusCode(), actualResponse.getStatusCode());
+        assertEquals(expectedResponse.getBody(), actualResponse.getBody());
     }
 }
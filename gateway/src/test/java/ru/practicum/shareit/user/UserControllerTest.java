@@ -10,12 +10,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserNewDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
@@ -38,13 +41,17 @@ class UserControllerTest {
         userNewDto.setName("user");
         userNewDto.setEmail("user@email.com");
         when(userClient.createUser(userNewDto))
-                .thenReturn(new ResponseEntity<>(userNewDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(userNewDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         post("/users")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(userNewDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("user"))
                 .andExpect(jsonPath("$.email").value("user@email.com"));
@@ -76,13 +83,17 @@ class UserControllerTest {
         userUpdateDto.setName("user");
         userUpdateDto.setEmail("user@email.com");
         when(userClient.updateUser(1L, userUpdateDto))
-                .thenReturn(new ResponseEntity<>(userUpdateDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(userUpdateDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         patch("/users/{userId}", 1L)
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(objectMapper.writeValueAsString(userUpdateDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("user"))
                 .andExpect(jsonPath("$.email").value("user@email.com"));
@@ -95,12 +106,16 @@ class UserControllerTest {
         userUpdateDto.setName("user");
         userUpdateDto.setEmail("user@email.com");
         when(userClient.getUser(1L))
-                .thenReturn(new ResponseEntity<>(userUpdateDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(userUpdateDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         get("/users/{userId}", 1L)
                                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("user"))
                 .andExpect(jsonPath("$.email").value("user@email.com"));
@@ -113,14 +128,18 @@ class UserControllerTest {
         userNewDto.setName("name");
         userNewDto.setEmail("user@email.com");
         when(userClient.getAllUsers(0, 10))
-                .thenReturn(new ResponseEntity<>(userNewDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(userNewDto, HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         get("/users")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .param("from", "0")
                                 .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("name"))
                 .andExpect(jsonPath("$.email").value("user@email.com"));
@@ -158,12 +177,16 @@ class UserControllerTest {
     void deleteUser_IsValid_ReturnsResponseEntity() throws Exception {
         // given
         when(userClient.deleteUser(1L))
-                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.OK)));
 
         // then
-        mockMvc.perform(
+        MvcResult mvcResult = mockMvc.perform(
                         delete("/users/1")
                                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk());
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Endpoints the load mix is made of; each builds one randomized request against the seeded data.
+ */
+public enum Endpoint {
+    SEARCH("search") {
+        @Override
+        HttpRequest request(ShareItApi api, SeedData data, Random random) {
+            return api.get("/items/search?from=0&size=20&text=" + data.randomWord(random), data.randomUser(random));
+        }
+    },
+    BOOKINGS("bookings") {
+        @Override
+        HttpRequest request(ShareItApi api, SeedData data, Random random) {
+            return api.get("/bookings?from=0&size=20&state=" + STATES[random.nextInt(STATES.length)],
+                    data.randomUser(random));
+        }
+    },
+    OWNER_ITEMS("owner-items") {
+        @Override
+        HttpRequest request(ShareItApi api, SeedData data, Random random) {
+            return api.get("/items?from=0&size=20", data.randomUser(random));
+        }
+    },
+    CREATE_BOOKING("create-booking") {
+        @Override
+        HttpRequest request(ShareItApi api, SeedData data, Random random) {
+            SeedData.SeededItem item = data.randomItem(random);
+            LocalDateTime start = data.randomFreeSlot(random);
+            return api.post("/bookings", data.randomUserExcept(item.getOwnerId(), random), Map.of(
+                    "itemId", item.getId(),
+                    "start", start,
+                    "end", start.plusHours(1 + random.nextInt(24))));
+        }
+    };
+
+    private static final String[] STATES = {"all", "current", "past", "future", "waiting", "rejected"};
+
+    private final String name;
+
+    Endpoint(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    abstract HttpRequest request(ShareItApi api, SeedData data, Random random);
+
+    static Endpoint byName(String name) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.name.equals(name)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint " + name + " in --mix");
+    }
+}
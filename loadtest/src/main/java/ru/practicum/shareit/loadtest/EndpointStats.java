@@ -0,0 +1,49 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies in nanoseconds and response counts of one endpoint. Not thread-safe: each worker keeps its
+ * own and they are merged after the run.
+ */
+@Getter
+public class EndpointStats {
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Histogram latencies = new Histogram(SIGNIFICANT_DIGITS);
+    private long successes;
+    private long clientErrors;
+    private long serverErrors;
+    private long failures;
+
+    void record(int status, long nanos) {
+        latencies.recordValue(nanos);
+        if (status >= 500) {
+            serverErrors++;
+        } else if (status >= 400) {
+            clientErrors++;
+        } else {
+            successes++;
+        }
+    }
+
+    /**
+     * Counts a request that got no response; its latency is left out of the histogram.
+     */
+    void recordFailure() {
+        failures++;
+    }
+
+    void add(EndpointStats other) {
+        latencies.add(other.latencies);
+        successes += other.successes;
+        clientErrors += other.clientErrors;
+        serverErrors += other.serverErrors;
+        failures += other.failures;
+    }
+
+    public long getRequests() {
+        return successes + clientErrors + serverErrors + failures;
+    }
+}
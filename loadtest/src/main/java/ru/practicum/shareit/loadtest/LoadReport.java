@@ -0,0 +1,66 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Prints throughput and latency percentiles per endpoint and writes each latency histogram as an
+ * HdrHistogram percentile distribution ({@code <endpoint>.hgrm}, in milliseconds), which the
+ * HdrHistogram plotter reads.
+ */
+@RequiredArgsConstructor
+public class LoadReport {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final String ROW = "%-16s %9s %9s %8s %8s %8s %8s %9s %9s %9s %9s %9s%n";
+
+    private final Map<Endpoint, EndpointStats> stats;
+    private final Duration duration;
+
+    public void print(PrintStream out) {
+        out.printf(ROW, "endpoint", "requests", "req/s", "2xx/3xx", "4xx", "5xx", "failed",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        EndpointStats total = new EndpointStats();
+        stats.forEach((endpoint, endpointStats) -> {
+            printRow(out, endpoint.getName(), endpointStats);
+            total.add(endpointStats);
+        });
+        printRow(out, "total", total);
+    }
+
+    public void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            Path file = directory.resolve(entry.getKey().getName() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().getLatencies().outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    private void printRow(PrintStream out, String name, EndpointStats endpointStats) {
+        Histogram latencies = endpointStats.getLatencies();
+        out.printf(ROW, name,
+                endpointStats.getRequests(),
+                String.format("%.1f", endpointStats.getRequests() / (double) duration.toSeconds()),
+                endpointStats.getSuccesses(),
+                endpointStats.getClientErrors(),
+                endpointStats.getServerErrors(),
+                endpointStats.getFailures(),
+                millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(90)),
+                millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / NANOS_PER_MILLI);
+    }
+}
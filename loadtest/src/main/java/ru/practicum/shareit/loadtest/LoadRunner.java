@@ -0,0 +1,92 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load: a fixed number of workers each send the next request as soon as the previous one
+ * is answered, picking endpoints by the weights of the mix. A warmup phase runs first and is not
+ * reported.
+ */
+@RequiredArgsConstructor
+public class LoadRunner {
+    private final ShareItApi api;
+    private final SeedData data;
+    private final LoadTestOptions options;
+
+    public Map<Endpoint, EndpointStats> run() throws InterruptedException {
+        System.out.printf("Warming up for %d s with %d threads%n", options.getWarmup().toSeconds(),
+                options.getThreads());
+        runPhase(options.getWarmup(), 0);
+        System.out.printf("Measuring for %d s%n", options.getDuration().toSeconds());
+        return runPhase(options.getDuration(), options.getThreads());
+    }
+
+    private Map<Endpoint, EndpointStats> runPhase(Duration length, int seedOffset) throws InterruptedException {
+        long deadline = System.nanoTime() + length.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(options.getThreads());
+        try {
+            List<Future<Map<Endpoint, EndpointStats>>> results = new ArrayList<>();
+            for (int worker = 0; worker < options.getThreads(); worker++) {
+                Random random = new Random(options.getSeed() + seedOffset + worker);
+                results.add(workers.submit(() -> work(random, deadline)));
+            }
+
+            Map<Endpoint, EndpointStats> total = new EnumMap<>(Endpoint.class);
+            for (Future<Map<Endpoint, EndpointStats>> result : results) {
+                result.get().forEach((endpoint, stats) ->
+                        total.computeIfAbsent(endpoint, e -> new EndpointStats()).add(stats));
+            }
+            return total;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load worker failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private Map<Endpoint, EndpointStats> work(Random random, long deadline) throws InterruptedException {
+        Endpoint[] choices = new Endpoint[options.getMix().size()];
+        int[] cumulativeWeights = new int[choices.length];
+        int totalWeight = 0;
+        int index = 0;
+        for (Map.Entry<Endpoint, Integer> entry : options.getMix().entrySet()) {
+            totalWeight += entry.getValue();
+            choices[index] = entry.getKey();
+            cumulativeWeights[index++] = totalWeight;
+        }
+
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        while (System.nanoTime() < deadline) {
+            int pick = random.nextInt(totalWeight);
+            int choice = 0;
+            while (cumulativeWeights[choice] <= pick) {
+                choice++;
+            }
+            Endpoint endpoint = choices[choice];
+            HttpRequest request = endpoint.request(api, data, random);
+            EndpointStats endpointStats = stats.computeIfAbsent(endpoint, e -> new EndpointStats());
+
+            long startedAt = System.nanoTime();
+            try {
+                int status = api.send(request);
+                endpointStats.record(status, System.nanoTime() - startedAt);
+            } catch (IOException e) {
+                endpointStats.recordFailure();
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the server and the gateway from their jars, seeds data through the gateway, replays the
+ * configured mix and reports per endpoint. The server runs on in-memory H2 unless {@code --db-url}
+ * points it to PostgreSQL.
+ */
+public final class LoadTestApplication {
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private LoadTestApplication() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Files.createDirectories(options.getWorkDir());
+        int serverPort = ShareItProcess.freePort();
+        int gatewayPort = ShareItProcess.freePort();
+
+        try (ShareItProcess server = ShareItProcess.start("server", options.getServerJar(),
+                serverArgs(options, serverPort), options.getWorkDir());
+             ShareItProcess gateway = ShareItProcess.start("gateway", options.getGatewayJar(),
+                     gatewayArgs(serverPort, gatewayPort), options.getWorkDir())) {
+            server.awaitHttp(URI.create("http://localhost:" + serverPort + "/users"), STARTUP_TIMEOUT);
+            gateway.awaitHttp(URI.create("http://localhost:" + gatewayPort + "/actuator/health"), STARTUP_TIMEOUT);
+            System.out.printf("Server on port %d, gateway on port %d, logs in %s%n", serverPort, gatewayPort,
+                    options.getWorkDir().toAbsolutePath());
+
+            ShareItApi api = new ShareItApi(URI.create("http://localhost:" + gatewayPort));
+            SeedData data = new Seeder(api, options).seed();
+            Map<Endpoint, EndpointStats> stats = new LoadRunner(api, data, options).run();
+
+            LoadReport report = new LoadReport(stats, options.getDuration());
+            report.print(System.out);
+            report.writeHistograms(options.getWorkDir());
+            System.out.printf("Latency histograms written to %s%n", options.getWorkDir().toAbsolutePath());
+        }
+    }
+
+    private static List<String> serverArgs(LoadTestOptions options, int port) {
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=" + port);
+        if (options.isPostgres()) {
+            args.add("--spring.datasource.url=" + options.getDbUrl());
+            args.add("--spring.datasource.username=" + options.getDbUser());
+            args.add("--spring.datasource.password=" + options.getDbPassword());
+        } else {
+            args.add("--spring.profiles.active=ci");
+            args.add("--spring.datasource.url=jdbc:h2:mem:shareit-load");
+        }
+        // per-transaction debug logging would dominate the measured latencies
+        args.add("--logging.level.ru.practicum.shareit=INFO");
+        args.add("--logging.level.org.springframework.transaction.interceptor=INFO");
+        args.add("--logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO");
+        return args;
+    }
+
+    private static List<String> gatewayArgs(int serverPort, int port) {
+        return List.of(
+                "--server.port=" + port,
+                "--shareit-server.url=http://localhost:" + serverPort,
+                "--logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=INFO");
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line options in the {@code --name=value} form; every option has a default, so a bare run
+ * seeds a small data set into H2 and replays the default mix for a minute.
+ */
+@Getter
+public class LoadTestOptions {
+    static final String DEFAULT_MIX = "search:40,bookings:30,owner-items:20,create-booking:10";
+
+    private final int users;
+    private final int itemsPerUser;
+    private final int bookingsPerItem;
+    private final int threads;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Map<Endpoint, Integer> mix;
+    private final Path serverJar;
+    private final Path gatewayJar;
+    private final Path workDir;
+    private final String dbUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final long seed;
+
+    private LoadTestOptions(Map<String, String> values) {
+        users = intValue(values, "users", 50);
+        itemsPerUser = intValue(values, "items-per-user", 4);
+        bookingsPerItem = intValue(values, "bookings-per-item", 5);
+        threads = intValue(values, "threads", 16);
+        warmup = Duration.ofSeconds(intValue(values, "warmup", 10));
+        duration = Duration.ofSeconds(intValue(values, "duration", 60));
+        mix = parseMix(values.getOrDefault("mix", DEFAULT_MIX));
+        serverJar = Path.of(values.getOrDefault("server-jar", "server/target/shareit-server-0.0.1-SNAPSHOT.jar"));
+        gatewayJar = Path.of(values.getOrDefault("gateway-jar",
+                "gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar"));
+        workDir = Path.of(values.getOrDefault("work-dir", "loadtest/target/run"));
+        dbUrl = values.get("db-url");
+        dbUser = values.get("db-user");
+        dbPassword = values.get("db-password");
+        seed = Long.parseLong(values.getOrDefault("seed", "42"));
+        if (users < 2) {
+            throw new IllegalArgumentException("--users must be at least 2, so bookers differ from owners");
+        }
+    }
+
+    public static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    /**
+     * Parses {@code name:weight} pairs separated by commas, e.g. {@code search:3,bookings:1}.
+     */
+    static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint:weight in --mix, got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + parts[0] + " must not be negative");
+            }
+            if (weight > 0) {
+                weights.put(Endpoint.byName(parts[0].trim().toLowerCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("--mix must give at least one endpoint a positive weight");
+        }
+        return weights;
+    }
+
+    public boolean isPostgres() {
+        return dbUrl != null;
+    }
+
+    private static int intValue(Map<String, String> values, String name, int defaultValue) {
+        String value = values.get(name);
+        int parsed = value == null ? defaultValue : Integer.parseInt(value);
+        if (parsed <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be positive");
+        }
+        return parsed;
+    }
+}
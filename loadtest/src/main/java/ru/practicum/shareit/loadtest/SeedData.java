@@ -0,0 +1,63 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Ids created by the {@link Seeder}, plus what the mix needs to build plausible requests: the words
+ * item names are made of and a window for new bookings after the seeded ones.
+ */
+@RequiredArgsConstructor
+public class SeedData {
+    private static final int FREE_WINDOW_HOURS = 24 * 365 * 5;
+
+    private final List<Long> users;
+    private final List<SeededItem> items;
+    private final List<String> words;
+    private final LocalDateTime freeFrom;
+    @Getter
+    private final int bookings;
+
+    public int getUserCount() {
+        return users.size();
+    }
+
+    public int getItemCount() {
+        return items.size();
+    }
+
+    long randomUser(Random random) {
+        return users.get(random.nextInt(users.size()));
+    }
+
+    long randomUserExcept(long userId, Random random) {
+        long user = randomUser(random);
+        while (user == userId) {
+            user = randomUser(random);
+        }
+        return user;
+    }
+
+    SeededItem randomItem(Random random) {
+        return items.get(random.nextInt(items.size()));
+    }
+
+    String randomWord(Random random) {
+        return words.get(random.nextInt(words.size()));
+    }
+
+    LocalDateTime randomFreeSlot(Random random) {
+        return freeFrom.plusHours(random.nextInt(FREE_WINDOW_HOURS));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class SeededItem {
+        private final long id;
+        private final long ownerId;
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Creates users, items and bookings through the gateway. Bookings are sent per booker through the
+ * batch endpoint; every item gets its bookings in consecutive non-overlapping slots, about half of
+ * them approved and a tenth rejected by the owner.
+ */
+@RequiredArgsConstructor
+public class Seeder {
+    static final List<String> WORDS = List.of("drill", "saw", "ladder", "tent", "bicycle", "camera", "kayak",
+            "projector", "guitar", "mixer", "scooter", "tripod");
+    private static final List<String> ADJECTIVES = List.of("cordless", "compact", "heavy", "vintage", "new",
+            "folding", "electric", "spare");
+    private static final int BATCH_SIZE = 500;
+    private static final int SLOT_HOURS = 48;
+
+    private final ShareItApi api;
+    private final LoadTestOptions options;
+
+    public SeedData seed() throws IOException, InterruptedException {
+        Random random = new Random(options.getSeed());
+        String run = Long.toString(System.currentTimeMillis(), 36);
+
+        List<Long> users = new ArrayList<>(options.getUsers());
+        for (int i = 0; i < options.getUsers(); i++) {
+            users.add(api.sendForJson(api.post("/users", null, Map.of(
+                    "email", "load-" + run + "-" + i + "@shareit.test",
+                    "name", "Load user " + i))).get("id").asLong());
+        }
+
+        List<SeedData.SeededItem> items = new ArrayList<>(users.size() * options.getItemsPerUser());
+        for (long owner : users) {
+            for (int i = 0; i < options.getItemsPerUser(); i++) {
+                String word = WORDS.get(random.nextInt(WORDS.size()));
+                String adjective = ADJECTIVES.get(random.nextInt(ADJECTIVES.size()));
+                long itemId = api.sendForJson(api.post("/items", owner, Map.of(
+                        "name", adjective + " " + word,
+                        "description", "A " + adjective + " " + word + " to share, item " + i + " of user " + owner,
+                        "available", random.nextInt(10) != 0))).get("id").asLong();
+                items.add(new SeedData.SeededItem(itemId, owner));
+            }
+        }
+
+        LocalDateTime origin = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Map<Long, List<Map<String, Object>>> bookingsByBooker = new HashMap<>();
+        Map<Long, Long> ownerByItem = new HashMap<>();
+        for (SeedData.SeededItem item : items) {
+            ownerByItem.put(item.getId(), item.getOwnerId());
+            for (int slot = 0; slot < options.getBookingsPerItem(); slot++) {
+                LocalDateTime start = origin.plusHours((long) slot * SLOT_HOURS + random.nextInt(SLOT_HOURS / 2));
+                long booker = users.get(random.nextInt(users.size()));
+                while (booker == item.getOwnerId()) {
+                    booker = users.get(random.nextInt(users.size()));
+                }
+                bookingsByBooker.computeIfAbsent(booker, id -> new ArrayList<>()).add(Map.of(
+                        "itemId", item.getId(),
+                        "start", start,
+                        "end", start.plusHours(1 + random.nextInt(SLOT_HOURS / 2))));
+            }
+        }
+
+        int created = 0;
+        for (Map.Entry<Long, List<Map<String, Object>>> entry : bookingsByBooker.entrySet()) {
+            List<Map<String, Object>> bookings = entry.getValue();
+            for (int from = 0; from < bookings.size(); from += BATCH_SIZE) {
+                JsonNode results = api.sendForJson(api.post("/bookings/batch", entry.getKey(),
+                        bookings.subList(from, Math.min(from + BATCH_SIZE, bookings.size()))));
+                for (JsonNode result : results) {
+                    if (result.get("status").asInt() != 201) {
+                        continue;
+                    }
+                    created++;
+                    JsonNode booking = result.get("booking");
+                    int decision = random.nextInt(10);
+                    if (decision < 6) {
+                        long owner = ownerByItem.get(booking.get("item").get("id").asLong());
+                        api.sendForJson(api.patch("/bookings/" + booking.get("id").asLong() + "?approved="
+                                + (decision > 0), owner));
+                    }
+                }
+            }
+        }
+
+        LocalDateTime freeFrom = origin.plusHours((long) (options.getBookingsPerItem() + 1) * SLOT_HOURS);
+        System.out.printf("Seeded %d users, %d items, %d bookings%n", users.size(), items.size(), created);
+        return new SeedData(users, items, WORDS, freeFrom, created);
+    }
+}
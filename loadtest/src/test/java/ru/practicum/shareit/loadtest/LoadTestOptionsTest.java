@@ -0,0 +1,48 @@
+package ru.practicum.shareit.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadTestOptionsTest {
+
+    @Test
+    void parse_NoArguments_UsesDefaults() {
+        // when
+        LoadTestOptions options = LoadTestOptions.parse();
+
+        // then
+        assertEquals(50, options.getUsers());
+        assertEquals(Duration.ofSeconds(60), options.getDuration());
+        assertEquals(LoadTestOptions.parseMix(LoadTestOptions.DEFAULT_MIX), options.getMix());
+        assertFalse(options.isPostgres());
+    }
+
+    @Test
+    void parse_ArgumentsGiven_OverridesDefaults() {
+        // when
+        LoadTestOptions options = LoadTestOptions.parse("--users=10", "--threads=4", "--duration=5",
+                "--mix=search:3, create-booking:1, bookings:0", "--db-url=jdbc:postgresql://localhost/shareit");
+
+        // then
+        assertEquals(10, options.getUsers());
+        assertEquals(4, options.getThreads());
+        assertEquals(Duration.ofSeconds(5), options.getDuration());
+        assertEquals(Map.of(Endpoint.SEARCH, 3, Endpoint.CREATE_BOOKING, 1), options.getMix());
+        assertTrue(options.isPostgres());
+    }
+
+    @Test
+    void parse_ArgumentsWrong_ThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("users=10"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--users=1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--mix=checkout:1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--mix=search:0"));
+    }
+}
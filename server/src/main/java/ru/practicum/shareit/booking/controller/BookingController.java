@@ -2,7 +2,10 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.BookingState;
@@ -24,11 +27,19 @@ public class BookingController {
         return bookingService.addBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> addBookings(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                                                   @RequestBody List<BookingRequestDto> bookingDtos) {
+        return bookingService.addBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingResponseDto handleBooking(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
                                             @PathVariable Long bookingId,
-                                            @RequestParam boolean approved) {
-        return bookingService.handleBooking(userId, bookingId, approved);
+                                            @RequestParam boolean approved,
+                                            @RequestHeader(value = CustomHeaders.IDEMPOTENCY_KEY, required = false)
+                                            String idempotencyKey) {
+        return bookingService.handleBooking(userId, bookingId, approved, idempotencyKey);
     }
 
     @GetMapping("/{bookingId}")
@@ -38,18 +49,34 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingResponseDto> getAllBookingsForUser(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
-                                                          @RequestParam(defaultValue = "ALL") BookingState state,
-                                                          @RequestParam(defaultValue = "0") Integer from,
-                                                          @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.getAllBookings(userId, state, "bookings", from, size);
+    public ResponseEntity<List<BookingResponseDto>> getAllBookingsForUser(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                                                                          @RequestParam(defaultValue = "ALL") BookingState state,
+                                                                          @RequestParam(defaultValue = "0") Integer from,
+                                                                          @RequestParam(defaultValue = "10") Integer size,
+                                                                          @RequestParam(required = false) String cursor) {
+        return getAllBookings(userId, state, "bookings", from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getAllBookingsForUserItems(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
-                                                               @RequestParam(defaultValue = "ALL") BookingState state,
-                                                               @RequestParam(defaultValue = "0") Integer from,
-                                                               @RequestParam(defaultValue = "10") Integer size) {
-        return bookingService.getAllBookings(userId, state, "bookings/owner", from, size);
+    public ResponseEntity<List<BookingResponseDto>> getAllBookingsForUserItems(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                                                                               @RequestParam(defaultValue = "ALL") BookingState state,
+                                                                               @RequestParam(defaultValue = "0") Integer from,
+                                                                               @RequestParam(defaultValue = "10") Integer size,
+                                                                               @RequestParam(required = false) String cursor) {
+        return getAllBookings(userId, state, "bookings/owner", from, size, cursor);
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> getAllBookings(Long userId, BookingState state, String path,
+                                                                    Integer from, Integer size, String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllBookings(userId, state, path, from, size));
+        }
+
+        BookingPageDto page = bookingService.getAllBookingsByCursor(userId, state, path, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CustomHeaders.X_NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one entry of {@code POST /bookings/batch}: the created booking, or the HTTP status and
+ * message the entry would have been rejected with by {@code POST /bookings}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingBatchResultDto {
+    private int index;
+
+    private int status;
+
+    private BookingResponseDto booking;
+
+    private String error;
+}
@@ -5,8 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 import java.time.LocalDateTime;
 
@@ -22,9 +22,9 @@ public class BookingResponseDto {
 
     private LocalDateTime end;
 
-    private Item item;
+    private ItemShortDto item;
 
-    private User booker;
+    private UserShortDto booker;
 
     private BookingStatus status = BookingStatus.WAITING;
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row of the columns a booking listing serializes, selected by a constructor expression
+ * so no entity is loaded into the persistence context.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingView {
+    private final Long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+    private final Long itemId;
+    private final String itemName;
+    private final Long bookerId;
+    private final String bookerName;
+}
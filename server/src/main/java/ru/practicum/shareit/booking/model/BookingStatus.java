@@ -1,7 +1,16 @@
 package ru.practicum.shareit.booking.model;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum BookingStatus {
     WAITING,
     APPROVED,
-    REJECTED
+    REJECTED;
+
+    /**
+     * Statuses that hold the booked period, so no other booking of the item may overlap it.
+     */
+    public static final Set<BookingStatus> RESERVING = Collections.unmodifiableSet(EnumSet.of(WAITING, APPROVED));
 }
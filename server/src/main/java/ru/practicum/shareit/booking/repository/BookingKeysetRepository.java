@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingKeysetRepository {
+
+    /**
+     * Bookings matching {@code spec} ordered by start and id descending, strictly after the
+     * {@code (afterStart, afterId)} position, or from the top when the position is null.
+     */
+    List<BookingView> findPageAfter(Specification<Booking> spec, @Nullable LocalDateTime afterStart,
+                                    @Nullable Long afterId, int limit);
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookingKeysetRepositoryImpl implements BookingKeysetRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingView> findPageAfter(Specification<Booking> spec, LocalDateTime afterStart, Long afterId,
+                                           int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingView> query = cb.createQuery(BookingView.class);
+        Root<Booking> root = query.from(Booking.class);
+        Join<Booking, Item> item = root.join("item");
+        Join<Booking, User> booker = root.join("booker");
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (afterStart != null && afterId != null) {
+            Predicate afterPosition = cb.or(
+                    cb.lessThan(root.get("start"), afterStart),
+                    cb.and(cb.equal(root.get("start"), afterStart), cb.lessThan(root.get("id"), afterId)));
+            predicate = cb.and(predicate, afterPosition);
+        }
+
+        query.select(cb.construct(BookingView.class,
+                        root.get("id"), root.get("start"), root.get("end"), root.get("status"),
+                        item.get("id"), item.get("name"),
+                        booker.get("id"), booker.get("name")))
+                .where(predicate)
+                .orderBy(cb.desc(root.get("start")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
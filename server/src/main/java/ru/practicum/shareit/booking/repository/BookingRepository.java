@@ -1,41 +1,125 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPeriod;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingKeysetRepository {
+
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
+
+    String SELECT_VIEW = "select new ru.practicum.shareit.booking.dto.BookingView(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, u.id, u.name) " +
+            "from Booking b join b.item i join i.user o join b.booker u ";
+
+    @Query(SELECT_VIEW + "where u.id = :bookerId")
+    List<BookingView> findViewsByBookerId(@Param("bookerId") Long bookerId, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where u.id = :bookerId and b.status = :status")
+    List<BookingView> findViewsByBookerIdAndStatus(@Param("bookerId") Long bookerId,
+                                                   @Param("status") BookingStatus status, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where u.id = :bookerId and b.start < :start and b.end > :end")
+    List<BookingView> findViewsByBookerIdAndStartBeforeAndEndAfter(@Param("bookerId") Long bookerId,
+                                                                   @Param("start") LocalDateTime start,
+                                                                   @Param("end") LocalDateTime end,
+                                                                   Pageable pageable);
+
+    @Query(SELECT_VIEW + "where u.id = :bookerId and b.end < :end")
+    List<BookingView> findViewsByBookerIdAndEndBefore(@Param("bookerId") Long bookerId,
+                                                      @Param("end") LocalDateTime end, Pageable pageable);
+
+    @Query(SELECT_VIEW + "where u.id = :bookerId and b.start > :start")
+    List<BookingView> findViewsByBookerIdAndStartAfter(@Param("bookerId") Long bookerId,
+                                                       @Param("start") LocalDateTime start, Pageable pageable);
 
-    List<Booking> findAllByBookerId(Long bookerId, Pageable pageable);
+    @Query(SELECT_VIEW + "where o.id = :ownerId")
+    List<BookingView> findViewsByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+    @Query(SELECT_VIEW + "where o.id = :ownerId and b.status = :status")
+    List<BookingView> findViewsByOwnerIdAndStatus(@Param("ownerId") Long ownerId,
+                                                  @Param("status") BookingStatus status, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime start, LocalDateTime end,
-                                                             Pageable pageable);
+    @Query(SELECT_VIEW + "where o.id = :ownerId and b.start < :start and b.end > :end")
+    List<BookingView> findViewsByOwnerIdAndStartBeforeAndEndAfter(@Param("ownerId") Long ownerId,
+                                                                  @Param("start") LocalDateTime start,
+                                                                  @Param("end") LocalDateTime end,
+                                                                  Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndEndBefore(Long bookerId, LocalDateTime end, Pageable pageable);
+    @Query(SELECT_VIEW + "where o.id = :ownerId and b.end < :end")
+    List<BookingView> findViewsByOwnerIdAndEndBefore(@Param("ownerId") Long ownerId,
+                                                     @Param("end") LocalDateTime end, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStartAfter(Long bookerId, LocalDateTime start, Pageable pageable);
+    @Query(SELECT_VIEW + "where o.id = :ownerId and b.start > :start")
+    List<BookingView> findViewsByOwnerIdAndStartAfter(@Param("ownerId") Long ownerId,
+                                                      @Param("start") LocalDateTime start, Pageable pageable);
 
-    List<Booking> findAllBookingsByItem_UserId(Long userId, Pageable pageable);
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.item.id = :itemId order by b.end desc")
+    List<Booking> findAllByItemIdOrderByEndDesc(@Param("itemId") Long itemId);
 
-    List<Booking> findAllBookingsByItem_UserIdAndStatus(Long userId, BookingStatus status, Pageable pageable);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select b.id as id, b.item.id as itemId, b.start as start, b.end as end from Booking b " +
+            "where b.status in :statuses and b.end > :after")
+    Stream<BookingPeriod> streamPeriodsEndingAfter(@Param("statuses") Collection<BookingStatus> statuses,
+                                                   @Param("after") LocalDateTime after);
 
-    List<Booking> findAllBookingsByItem_UserIdAndStartBeforeAndEndAfter(Long userId, LocalDateTime start,
-                                                                        LocalDateTime end, Pageable pageable);
+    @Query("select b.id as id, b.item.id as itemId, b.start as start, b.end as end from Booking b " +
+            "where b.item.id in :itemIds and b.status in :statuses and b.start < :to and b.end > :from")
+    List<BookingPeriod> findPeriodsOverlapping(@Param("itemIds") Collection<Long> itemIds,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to,
+                                               @Param("statuses") Collection<BookingStatus> statuses);
 
-    List<Booking> findAllBookingsByItem_UserIdAndEndBefore(Long userId, LocalDateTime start, Pageable pageable);
+    String EXISTS_OVERLAPPING = "select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses and b.start < :end and b.end > :start ";
 
-    List<Booking> findAllBookingsByItem_UserIdAndStartAfter(Long userId, LocalDateTime start, Pageable pageable);
+    @Query(EXISTS_OVERLAPPING)
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end,
+                              @Param("statuses") Collection<BookingStatus> statuses);
 
-    List<Booking> findAllByItemIdOrderByEndDesc(Long itemId);
+    @Query(EXISTS_OVERLAPPING + "and b.id <> :bookingId")
+    boolean existsOtherOverlapping(@Param("bookingId") Long bookingId,
+                                   @Param("itemId") Long itemId,
+                                   @Param("start") LocalDateTime start,
+                                   @Param("end") LocalDateTime end,
+                                   @Param("statuses") Collection<BookingStatus> statuses);
 
-    List<Booking> findAllByItemInOrderByEndDesc(List<Item> items);
+    // Callers only read item and booker ids, which the uninitialized proxies already carry.
+    @Query(value = "select id, start_date, end_date, item_id, booker_id, status, version, status_key from ( " +
+            "select b.*, row_number() over (partition by b.item_id order by b.end_date desc, b.id desc) as rn " +
+            "from booking b " +
+            "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date < :now " +
+            ") last_booking where rn = 1 " +
+            "union all " +
+            "select id, start_date, end_date, item_id, booker_id, status, version, status_key from ( " +
+            "select b.*, row_number() over (partition by b.item_id order by b.start_date, b.id) as rn " +
+            "from booking b " +
+            "where b.item_id in (:itemIds) and b.status = 'APPROVED' and b.start_date >= :now " +
+            ") next_booking where rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastAndNextApprovedByItemIds(@Param("itemIds") List<Long> itemIds,
+                                                   @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,269 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.utility.TransactionCallbacks.afterCommit;
+
+/**
+ * Reserved (WAITING or APPROVED) periods per item, kept as start-sorted primitive arrays, so an overlap
+ * check is a binary search. Covers bookings ending after the last rebuild; earlier periods are answered
+ * by the database. Changes are applied after the booking transaction commits; rebuilds read the primary,
+ * since a lagging replica would miss the latest reservations.
+ * <p>
+ * The calendar lives on one node and only sees that node's commits, so it serves reads only (search by free
+ * period, item availability). Creating or approving a booking never asks it: the item row is locked and the
+ * overlap is checked in the database. Off by default; with several nodes, reads on one node miss bookings
+ * made on the others until its next rebuild.
+ */
+@Slf4j
+@Component
+public class AvailabilityCalendar implements SmartInitializingSingleton {
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate primaryTransaction;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Periods> periodsByItem = new HashMap<>();
+    private volatile long horizon = Long.MAX_VALUE;
+    private volatile boolean ready;
+
+    public AvailabilityCalendar(BookingRepository bookingRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shareit.availability.calendar.enabled:false}") boolean enabled) {
+        this.bookingRepository = bookingRepository;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        ready = false;
+        long startedAt = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        lock.writeLock().lock();
+        try {
+            periodsByItem.clear();
+            horizon = toMicros(now);
+            primaryTransaction.executeWithoutResult(status -> {
+                try (Stream<BookingPeriod> periods = bookingRepository.streamPeriodsEndingAfter(
+                        BookingStatus.RESERVING, now)) {
+                    periods.forEach(period -> add(period.getItemId(), period.getId(), period.getStart(),
+                            period.getEnd()));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Availability calendar rebuilt in {} ms: {} items, {} periods",
+                System.currentTimeMillis() - startedAt, getItemCount(), getPeriodCount());
+    }
+
+    /**
+     * Records the booking's period if its status reserves it, and drops the period otherwise.
+     */
+    public void update(Booking booking) {
+        if (!enabled || booking.getId() == null) {
+            return;
+        }
+        long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        boolean reserving = BookingStatus.RESERVING.contains(booking.getStatus());
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (reserving) {
+                    add(itemId, bookingId, start, end);
+                } else {
+                    remove(itemId, bookingId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Returns empty if the calendar is not built or the period starts before it, so the caller should ask
+     * the database.
+     */
+    public Optional<Boolean> isReserved(long itemId, LocalDateTime from, LocalDateTime to) {
+        return freeBetween(from, to).map(isFree -> !isFree.test(itemId));
+    }
+
+    /**
+     * Returns a test for "item has no reserved period overlapping [from, to)", or empty when
+     * {@link #isReserved} would.
+     */
+    public Optional<LongPredicate> freeBetween(LocalDateTime from, LocalDateTime to) {
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        if (!ready || fromMicros < horizon) {
+            return Optional.empty();
+        }
+        return Optional.of(itemId -> {
+            lock.readLock().lock();
+            try {
+                Periods periods = periodsByItem.get(itemId);
+                return periods == null || !periods.overlaps(fromMicros, toMicros);
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getItemCount() {
+        lock.readLock().lock();
+        try {
+            return periodsByItem.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getPeriodCount() {
+        lock.readLock().lock();
+        try {
+            return periodsByItem.values().stream().mapToLong(periods -> periods.ids.length).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        long endMicros = toMicros(end);
+        if (endMicros <= horizon) {
+            return;
+        }
+        periodsByItem.merge(itemId, Periods.EMPTY.with(bookingId, toMicros(start), endMicros),
+                (current, added) -> current.with(bookingId, added.starts[0], added.ends[0]));
+    }
+
+    private void remove(long itemId, long bookingId) {
+        periodsByItem.computeIfPresent(itemId, (id, current) -> current.without(bookingId));
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    /**
+     * Immutable; {@code maxEnds[i]} is the latest end among the first {@code i + 1} periods, so the check
+     * stays correct for legacy rows that overlap each other.
+     */
+    private static final class Periods {
+        private static final Periods EMPTY = new Periods(new long[0], new long[0], new long[0]);
+
+        private final long[] ids;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+
+        private Periods(long[] ids, long[] starts, long[] ends) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new long[ends.length];
+            for (int i = 0; i < ends.length; i++) {
+                maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+            }
+        }
+
+        private boolean overlaps(long from, long to) {
+            int startingBefore = firstStartAtOrAfter(to);
+            return startingBefore > 0 && maxEnds[startingBefore - 1] > from;
+        }
+
+        private Periods with(long id, long start, long end) {
+            Periods remaining = without(id);
+            Periods current = remaining != null ? remaining : EMPTY;
+            int position = current.firstStartAtOrAfter(start);
+            int size = current.ids.length;
+            long[] newIds = new long[size + 1];
+            long[] newStarts = new long[size + 1];
+            long[] newEnds = new long[size + 1];
+            System.arraycopy(current.ids, 0, newIds, 0, position);
+            System.arraycopy(current.starts, 0, newStarts, 0, position);
+            System.arraycopy(current.ends, 0, newEnds, 0, position);
+            newIds[position] = id;
+            newStarts[position] = start;
+            newEnds[position] = end;
+            System.arraycopy(current.ids, position, newIds, position + 1, size - position);
+            System.arraycopy(current.starts, position, newStarts, position + 1, size - position);
+            System.arraycopy(current.ends, position, newEnds, position + 1, size - position);
+            return new Periods(newIds, newStarts, newEnds);
+        }
+
+        /**
+         * Returns {@code null} for the last period, so the map entry of the item is removed.
+         */
+        private Periods without(long id) {
+            int position = -1;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    position = i;
+                    break;
+                }
+            }
+            if (position < 0) {
+                return this;
+            }
+            if (ids.length == 1) {
+                return null;
+            }
+            return new Periods(removeAt(ids, position), removeAt(starts, position), removeAt(ends, position));
+        }
+
+        private int firstStartAtOrAfter(long time) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private static long[] removeAt(long[] values, int position) {
+            long[] result = Arrays.copyOf(values, values.length - 1);
+            System.arraycopy(values, position + 1, result, position, values.length - position - 1);
+            return result;
+        }
+    }
+}
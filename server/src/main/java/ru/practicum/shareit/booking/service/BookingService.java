@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.BookingState;
@@ -10,10 +12,15 @@ public interface BookingService {
 
     BookingResponseDto addBooking(Long userId, BookingRequestDto bookingDto);
 
-    BookingResponseDto handleBooking(Long userId, Long bookingId, boolean approved);
+    List<BookingBatchResultDto> addBookings(Long userId, List<BookingRequestDto> bookingDtos);
+
+    BookingResponseDto handleBooking(Long userId, Long bookingId, boolean approved, String idempotencyKey);
 
     BookingResponseDto getBooking(Long userId, Long bookingId);
 
     List<BookingResponseDto> getAllBookings(Long userId, BookingState state, String path,
                                             Integer from, Integer size);
+
+    BookingPageDto getAllBookingsByCursor(Long userId, BookingState state, String path,
+                                          String cursor, Integer size);
 }
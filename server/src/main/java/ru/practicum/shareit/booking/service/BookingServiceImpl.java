@@ -2,50 +2,73 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPeriod;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserValidator;
+import ru.practicum.shareit.utility.BookingCursor;
 import ru.practicum.shareit.utility.BookingDtoMapper;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserValidator userValidator;
+    private final AvailabilityCalendar availabilityCalendar;
 
     @Override
+    @Transactional
     public BookingResponseDto addBooking(Long userId, BookingRequestDto bookingRequestDto) {
         Booking booking = BookingDtoMapper.toBooking(bookingRequestDto);
 
-        if (booking.getStart().isEqual(booking.getEnd())) {
-            throw new BadRequestException("Start time must not be equal end time");
-        }
-        if (booking.getStart().isAfter(booking.getEnd())) {
-            throw new BadRequestException("End time must be after start time");
-        }
+        requireValidPeriod(booking);
 
-        Item item = itemRepository.findById(bookingRequestDto.getItemId())
-                .orElseThrow(() -> new NotFoundException("Item with id = " + bookingRequestDto.getItemId() + " not found"));
+        Item item = lockItem(bookingRequestDto.getItemId());
         booking.setItem(item);
 
         User booker = userRepository.findById(userId)
@@ -60,12 +83,75 @@ public class BookingServiceImpl implements BookingService {
             throw new BadRequestException("Item with id = " + booking.getItem().getId() + " unavailable");
         }
 
+        requireFreePeriod(booking, BookingStatus.RESERVING);
+
         Booking savedBooking = bookingRepository.save(booking);
+        availabilityCalendar.update(savedBooking);
         return BookingDtoMapper.toDto(savedBooking);
     }
 
+    /**
+     * Creates the valid entries in one transaction: the booker, the items (locked) and their reserved
+     * periods are read with one query each, and the new bookings are inserted in JDBC batches.
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> addBookings(Long userId, List<BookingRequestDto> bookingDtos) {
+        if (bookingDtos.isEmpty() || bookingDtos.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch must contain from 1 to " + MAX_BATCH_SIZE + " bookings");
+        }
+
+        User booker = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User with id = " + userId + " not found"));
+
+        Set<Long> itemIds = bookingDtos.stream()
+                .filter(Objects::nonNull)
+                .map(BookingRequestDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Item> items = itemIds.isEmpty() ? Map.of() : itemRepository.findAllByIdInForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<Booking>> reservedByItem = findReservedPeriods(items.keySet(), bookingDtos);
+
+        LocalDateTime now = LocalDateTime.now();
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingDtos.size()];
+        List<Booking> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            try {
+                Booking booking = toBatchBooking(bookingDtos.get(i), booker, items, reservedByItem, now);
+                reservedByItem.computeIfAbsent(booking.getItem().getId(), id -> new ArrayList<>()).add(booking);
+                accepted.add(booking);
+                acceptedIndexes.add(i);
+            } catch (BadRequestException e) {
+                results[i] = new BookingBatchResultDto(i, HttpStatus.BAD_REQUEST.value(), null, e.getMessage());
+            } catch (NotFoundException e) {
+                results[i] = new BookingBatchResultDto(i, HttpStatus.NOT_FOUND.value(), null, e.getMessage());
+            }
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(accepted);
+        for (int i = 0; i < saved.size(); i++) {
+            Booking booking = saved.get(i);
+            availabilityCalendar.update(booking);
+            int index = acceptedIndexes.get(i);
+            results[index] = new BookingBatchResultDto(index, HttpStatus.CREATED.value(),
+                    BookingDtoMapper.toDto(booking), null);
+        }
+        log.debug("Batch of {} bookings by user {}: {} created", bookingDtos.size(), userId, saved.size());
+        return Arrays.asList(results);
+    }
+
     @Override
-    public BookingResponseDto handleBooking(Long userId, Long bookingId, boolean approved) {
+    @Transactional
+    @Retryable(value = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = "${shareit.booking.handle.max-attempts:3}",
+            backoff = @Backoff(delayExpression = "${shareit.booking.handle.backoff:10}", multiplier = 2, random = true))
+    public BookingResponseDto handleBooking(Long userId, Long bookingId, boolean approved, String idempotencyKey) {
+        if (idempotencyKey != null && idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency key must not be longer than " + MAX_IDEMPOTENCY_KEY_LENGTH);
+        }
+
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Booking with id = " + bookingId + " not found"));
 
@@ -73,13 +159,28 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException("User with id = " + userId + " not owner");
         }
 
+        if (idempotencyKey != null && idempotencyKey.equals(booking.getStatusKey())) {
+            return BookingDtoMapper.toDto(booking);
+        }
+
         if (approved && booking.getStatus() == BookingStatus.APPROVED) {
             throw new BadRequestException("Booking with id = " + bookingId + " is already approved");
         }
 
+        if (!approved && booking.getStatus() == BookingStatus.REJECTED) {
+            return BookingDtoMapper.toDto(booking);
+        }
+
+        if (approved) {
+            lockItem(booking.getItem().getId());
+            requireFreePeriod(booking, EnumSet.of(BookingStatus.APPROVED));
+        }
+
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        booking.setStatusKey(idempotencyKey);
 
         Booking updatedBooking = bookingRepository.save(booking);
+        availabilityCalendar.update(updatedBooking);
         return BookingDtoMapper.toDto(updatedBooking);
     }
 
@@ -103,63 +204,181 @@ public class BookingServiceImpl implements BookingService {
                                                    Integer from, Integer size) {
         LocalDateTime now = LocalDateTime.now();
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id = " + userId + " not found"));
+        userValidator.requireExists(userId);
 
         int page = from / size;
         Sort sort = Sort.by(Sort.Direction.DESC, "start");
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        List<Booking> bookings;
+        List<BookingView> bookings;
 
         if (path.equals("bookings/owner")) {
             switch (state) {
                 case CURRENT:
                     bookings = bookingRepository
-                            .findAllBookingsByItem_UserIdAndStartBeforeAndEndAfter(user.getId(), now, now, pageable);
+                            .findViewsByOwnerIdAndStartBeforeAndEndAfter(userId, now, now, pageable);
                     break;
                 case PAST:
-                    bookings = bookingRepository.findAllBookingsByItem_UserIdAndEndBefore(user.getId(), now, pageable);
+                    bookings = bookingRepository.findViewsByOwnerIdAndEndBefore(userId, now, pageable);
                     break;
                 case FUTURE:
-                    bookings = bookingRepository.findAllBookingsByItem_UserIdAndStartAfter(user.getId(), now, pageable);
+                    bookings = bookingRepository.findViewsByOwnerIdAndStartAfter(userId, now, pageable);
                     break;
                 case WAITING:
                     bookings = bookingRepository
-                            .findAllBookingsByItem_UserIdAndStatus(user.getId(), BookingStatus.WAITING, pageable);
+                            .findViewsByOwnerIdAndStatus(userId, BookingStatus.WAITING, pageable);
                     break;
                 case REJECTED:
                     bookings = bookingRepository
-                            .findAllBookingsByItem_UserIdAndStatus(user.getId(), BookingStatus.REJECTED, pageable);
+                            .findViewsByOwnerIdAndStatus(userId, BookingStatus.REJECTED, pageable);
                     break;
                 default:
-                    bookings = bookingRepository.findAllBookingsByItem_UserId(user.getId(), pageable);
+                    bookings = bookingRepository.findViewsByOwnerId(userId, pageable);
             }
         } else {
             switch (state) {
                 case CURRENT:
                     bookings = bookingRepository
-                            .findAllByBookerIdAndStartBeforeAndEndAfter(user.getId(), now, now, pageable);
+                            .findViewsByBookerIdAndStartBeforeAndEndAfter(userId, now, now, pageable);
                     break;
                 case PAST:
-                    bookings = bookingRepository.findAllByBookerIdAndEndBefore(user.getId(), now, pageable);
+                    bookings = bookingRepository.findViewsByBookerIdAndEndBefore(userId, now, pageable);
                     break;
                 case FUTURE:
-                    bookings = bookingRepository.findAllByBookerIdAndStartAfter(user.getId(), now, pageable);
+                    bookings = bookingRepository.findViewsByBookerIdAndStartAfter(userId, now, pageable);
                     break;
                 case WAITING:
                     bookings = bookingRepository
-                            .findAllByBookerIdAndStatus(user.getId(), BookingStatus.WAITING, pageable);
+                            .findViewsByBookerIdAndStatus(userId, BookingStatus.WAITING, pageable);
                     break;
                 case REJECTED:
                     bookings = bookingRepository
-                            .findAllByBookerIdAndStatus(user.getId(), BookingStatus.REJECTED, pageable);
+                            .findViewsByBookerIdAndStatus(userId, BookingStatus.REJECTED, pageable);
                     break;
                 default:
-                    bookings = bookingRepository.findAllByBookerId(user.getId(), pageable);
+                    bookings = bookingRepository.findViewsByBookerId(userId, pageable);
             }
         }
 
         return bookings.stream().map(BookingDtoMapper::toDto).collect(Collectors.toList());
     }
+
+    @Override
+    public BookingPageDto getAllBookingsByCursor(Long userId, BookingState state, String path,
+                                                 String cursor, Integer size) {
+        LocalDateTime now = LocalDateTime.now();
+
+        userValidator.requireExists(userId);
+
+        Specification<Booking> spec = path.equals("bookings/owner")
+                ? BookingSpecifications.itemOwnerIs(userId)
+                : BookingSpecifications.bookerIs(userId);
+        spec = spec.and(BookingSpecifications.inState(state, now));
+
+        BookingCursor after = cursor == null || cursor.isBlank() ? null : BookingCursor.decode(cursor);
+        List<BookingView> bookings = bookingRepository.findPageAfter(spec,
+                after != null ? after.getStart() : null,
+                after != null ? after.getId() : null,
+                size + 1);
+
+        String nextCursor = null;
+        if (bookings.size() > size) {
+            bookings = bookings.subList(0, size);
+            nextCursor = BookingCursor.after(bookings.get(size - 1)).encode();
+        }
+
+        return new BookingPageDto(bookings.stream().map(BookingDtoMapper::toDto).collect(Collectors.toList()),
+                nextCursor);
+    }
+
+    private Booking toBatchBooking(BookingRequestDto bookingDto, User booker, Map<Long, Item> items,
+                                   Map<Long, List<Booking>> reservedByItem, LocalDateTime now) {
+        if (bookingDto == null || bookingDto.getStart() == null || bookingDto.getEnd() == null
+                || bookingDto.getItemId() == null) {
+            throw new BadRequestException("Start, end and item id are required");
+        }
+        if (bookingDto.getStart().isBefore(now)) {
+            throw new BadRequestException("Start time must not be in the past");
+        }
+
+        Booking booking = Booking.builder()
+                .start(bookingDto.getStart())
+                .end(bookingDto.getEnd())
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build();
+        requireValidPeriod(booking);
+
+        Item item = items.get(bookingDto.getItemId());
+        if (item == null) {
+            throw new NotFoundException("Item with id = " + bookingDto.getItemId() + " not found");
+        }
+        if (Objects.equals(booker.getId(), item.getUser().getId())) {
+            throw new NotFoundException("Unable to book your item");
+        }
+        if (!item.getAvailable()) {
+            throw new BadRequestException("Item with id = " + item.getId() + " unavailable");
+        }
+        booking.setItem(item);
+
+        boolean overlaps = reservedByItem.getOrDefault(item.getId(), List.of()).stream()
+                .anyMatch(reserved -> reserved.getStart().isBefore(booking.getEnd())
+                        && reserved.getEnd().isAfter(booking.getStart()));
+        if (overlaps) {
+            throw new BadRequestException("Item with id = " + item.getId() + " is already booked for this period");
+        }
+        return booking;
+    }
+
+    /**
+     * Reserved periods of the items within the span of the whole batch, keyed by item id.
+     */
+    private Map<Long, List<Booking>> findReservedPeriods(Set<Long> itemIds, List<BookingRequestDto> bookingDtos) {
+        Map<Long, List<Booking>> reservedByItem = new HashMap<>();
+        LocalDateTime from = bookingDtos.stream()
+                .filter(dto -> dto != null && dto.getStart() != null)
+                .map(BookingRequestDto::getStart)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        LocalDateTime to = bookingDtos.stream()
+                .filter(dto -> dto != null && dto.getEnd() != null)
+                .map(BookingRequestDto::getEnd)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        if (itemIds.isEmpty() || from == null || to == null) {
+            return reservedByItem;
+        }
+        for (BookingPeriod period : bookingRepository.findPeriodsOverlapping(itemIds, from, to,
+                BookingStatus.RESERVING)) {
+            reservedByItem.computeIfAbsent(period.getItemId(), id -> new ArrayList<>())
+                    .add(new Booking(period.getId(), period.getStart(), period.getEnd(), null, null, null));
+        }
+        return reservedByItem;
+    }
+
+    private static void requireValidPeriod(Booking booking) {
+        if (booking.getStart().isEqual(booking.getEnd())) {
+            throw new BadRequestException("Start time must not be equal end time");
+        }
+        if (booking.getStart().isAfter(booking.getEnd())) {
+            throw new BadRequestException("End time must be after start time");
+        }
+    }
+
+    private Item lockItem(Long itemId) {
+        return itemRepository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new NotFoundException("Item with id = " + itemId + " not found"));
+    }
+
+    private void requireFreePeriod(Booking booking, Set<BookingStatus> statuses) {
+        boolean overlaps = booking.getId() == null
+                ? bookingRepository.existsOverlapping(booking.getItem().getId(), booking.getStart(), booking.getEnd(),
+                        statuses)
+                : bookingRepository.existsOtherOverlapping(booking.getId(), booking.getItem().getId(),
+                        booking.getStart(), booking.getEnd(), statuses);
+        if (overlaps) {
+            throw new BadRequestException("Item with id = " + booking.getItem().getId() +
+                    " is already booked for this period");
+        }
+    }
 }
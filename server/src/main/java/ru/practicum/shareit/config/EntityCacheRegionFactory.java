@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Second-level cache for {@code User} and {@code Item}, sized and expired by {@code ehcache.xml}.
+ * Every session factory gets its own cache manager, so contexts sharing a JVM never share cached rows.
+ * Hit and miss counts are published as JCache statistics MBeans of the manager.
+ */
+public class EntityCacheRegionFactory extends JCacheRegionFactory {
+    public static final String CACHE_MANAGER_PREFIX = "shareit-entity-cache-";
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    protected CacheManager resolveCacheManager(SessionFactoryOptions settings, Map properties) {
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        XmlConfiguration configuration = new XmlConfiguration(getClass().getResource("/ehcache.xml"));
+        return provider.getCacheManager(URI.create(CACHE_MANAGER_PREFIX + UUID.randomUUID()), configuration);
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Tags of the request and repository timers. Every tag value comes from code (handler methods, URI
+ * templates, repository methods) rather than from request data, and the repository method tag is
+ * capped like Spring Boot caps URI tags.
+ */
+@Configuration
+public class MetricsConfig {
+    static final String HANDLER_TAG = "handler";
+    private static final String REPOSITORY_INVOCATIONS = "spring.data.repository.invocations";
+
+    @Bean
+    public WebMvcTagsContributor handlerMethodTagContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                         Throwable exception) {
+                return Tags.of(HANDLER_TAG, handlerName(handler));
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.of(HANDLER_TAG, handlerName(handler));
+            }
+        };
+    }
+
+    @Bean
+    public MeterFilter repositoryMethodTagLimit(@Value("${shareit.metrics.max-repository-methods:200}")
+                                                int maxRepositoryMethods) {
+        return MeterFilter.maximumAllowableTags(REPOSITORY_INVOCATIONS, "method", maxRepositoryMethods,
+                MeterFilter.deny());
+    }
+
+    /**
+     * Size, estimated heap footprint and hit rate of the in-memory item search index; searches answered by
+     * the database count as misses.
+     */
+    @Bean
+    public MeterBinder itemSearchIndexMetrics(ItemSearchIndex index) {
+        return registry -> {
+            Gauge.builder("shareit.search.index.items", index, ItemSearchIndex::getIndexedItemCount)
+                    .description("Items in the search index")
+                    .register(registry);
+            Gauge.builder("shareit.search.index.grams", index, ItemSearchIndex::getGramCount)
+                    .description("Distinct trigrams in the search index")
+                    .register(registry);
+            Gauge.builder("shareit.search.index.memory", index, ItemSearchIndex::getEstimatedMemoryBytes)
+                    .description("Estimated heap used by the search index")
+                    .baseUnit(BaseUnits.BYTES)
+                    .register(registry);
+            Gauge.builder("shareit.search.index.hit.rate", index, ItemSearchIndex::getHitRate)
+                    .description("Share of searches answered by the index instead of the database")
+                    .register(registry);
+            FunctionCounter.builder("shareit.search.index.searches", index, ItemSearchIndex::getHitCount)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("shareit.search.index.searches", index, ItemSearchIndex::getMissCount)
+                    .tag("result", "miss")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Gets, puts and evictions of the entity cache regions, read from their JCache statistics, so they are
+     * exported without {@code shareit.metrics.hibernate-statistics}.
+     */
+    @Bean
+    public MeterBinder entityCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache()
+                    .getRegionFactory();
+            if (!(regionFactory instanceof JCacheRegionFactory)) {
+                return;
+            }
+            CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+            for (String name : cacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, cacheManager.getCache(name));
+            }
+        };
+    }
+
+    private static String handlerName(Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return "none";
+        }
+        HandlerMethod method = (HandlerMethod) handler;
+        return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections opened inside a read-only transaction to the replica pool and everything else
+ * to the primary. Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * because the read-only flag is only bound after the transaction manager has asked for a connection.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Target.REPLICA : Target.PRIMARY;
+    }
+}
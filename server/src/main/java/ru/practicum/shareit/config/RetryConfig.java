@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.retry.annotation.RetryConfiguration;
+
+@Configuration
+@EnableRetry
+public class RetryConfig {
+
+    /**
+     * Orders the retry advice before the transaction advice (both default to the lowest precedence),
+     * so every {@code @Retryable} attempt runs and commits in a transaction of its own.
+     */
+    @Bean
+    static BeanPostProcessor retryBeforeTransactionPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RetryConfiguration) {
+                    ((RetryConfiguration) bean).setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+                }
+                return bean;
+            }
+        };
+    }
+}
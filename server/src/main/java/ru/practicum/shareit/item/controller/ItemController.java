@@ -1,14 +1,26 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.utility.CustomHeaders;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,6 +28,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImporter itemImporter;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ItemResponseDto addItem(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
@@ -23,6 +37,31 @@ public class ItemController {
         return itemService.addItem(userId, itemRequestDto);
     }
 
+    /**
+     * Streams one NDJSON line per rejected row and per saved chunk, see {@link ItemImporter}.
+     */
+    @PostMapping(value = "/import", consumes = {ItemImporter.NDJSON, ItemImporter.CSV})
+    public void importItems(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
+                            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        OutputStream out = response.getOutputStream();
+        itemImporter.importItems(userId, contentType, request.getInputStream(), progress -> {
+            try {
+                if (!response.isCommitted()) {
+                    response.setContentType(ItemImporter.NDJSON);
+                }
+                out.write(objectMapper.writeValueAsBytes(progress));
+                out.write('\n');
+                if (progress.getRow() == null) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
     @PatchMapping("/{itemId}")
     public ItemResponseDto updateItem(@RequestHeader(CustomHeaders.X_SHARER_USER_ID) Long userId,
                                       @PathVariable Long itemId,
@@ -43,10 +82,26 @@ public class ItemController {
         return itemService.getAllItemsByOwner(userId, from, size);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
     @GetMapping("/search")
-    public List<ItemResponseDto> searchItem(@RequestParam String text,
+    public List<ItemResponseDto> searchItem(@RequestParam(defaultValue = "") String text,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime freeFrom,
+                                            @RequestParam(required = false)
+                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime freeTo,
                                             @RequestParam(defaultValue = "0") Integer from,
                                             @RequestParam(defaultValue = "10") Integer size) {
+        if (freeFrom != null || freeTo != null) {
+            return itemService.searchAvailableItemFreeBetween(text, freeFrom, freeTo, from, size);
+        }
         return itemService.searchAvailableItem(text, from, size);
     }
 
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the {@code POST /items/import} response: either the error of a rejected row, or the
+ * counters after a saved chunk ({@code done} on the last line).
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportProgressDto {
+    private Long row;
+
+    private String error;
+
+    private Long processed;
+
+    private Long imported;
+
+    private Long failed;
+
+    private Boolean done;
+
+    public static ItemImportProgressDto rowError(long row, String error) {
+        return new ItemImportProgressDto(row, error, null, null, null, null);
+    }
+
+    public static ItemImportProgressDto progress(long processed, long imported, long failed, boolean done) {
+        return new ItemImportProgressDto(null, null, processed, imported, failed, done);
+    }
+}
@@ -5,15 +5,24 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+/**
+ * The constraints describe a new item and are checked on imported rows; partial updates may leave fields empty.
+ */
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class ItemRequestDto {
+    @NotBlank
     private String name;
 
+    @NotBlank
     private String description;
 
+    @NotNull
     private Boolean available;
 
     private Long requestId;
@@ -1,13 +1,19 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemId(Long itemId);
+    @EntityGraph(attributePaths = "author")
+    @Query("select c from Comment c where c.item.id = :itemId")
+    List<Comment> findAllByItemId(@Param("itemId") Long itemId);
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItemIn(List<Item> items);
 }
@@ -1,23 +1,73 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchView;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Optional<Item> findById(Long id);
+
+    /**
+     * Locks the item row (not its owner) until the transaction ends, so reservations of one item are
+     * serialized while reservations of other items proceed in parallel.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Locks the items in id order, so concurrent batches sharing items cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in :ids order by i.id")
+    List<Item> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
     List<Item> findAllByUserIdOrderById(Long userId, Pageable pageable);
 
     @Query(" select i from Item i " +
             "where (lower(i.name) like lower(concat('%', ?1, '%')) " +
             "or lower(i.description) like lower(concat('%', ?1, '%'))) " +
-            "and i.available = true")
+            "and i.available = true " +
+            "order by i.id")
     List<Item> searchAvailableItem(String text, Pageable pageable);
 
+    @Query(" select i from Item i " +
+            "where (lower(i.name) like lower(concat('%', :text, '%')) " +
+            "or lower(i.description) like lower(concat('%', :text, '%'))) " +
+            "and i.available = true " +
+            "and not exists (select b.id from Booking b where b.item = i and b.status in :statuses " +
+            "and b.start < :freeTo and b.end > :freeFrom) " +
+            "order by i.id")
+    List<Item> searchAvailableItemFreeBetween(@Param("text") String text,
+                                              @Param("freeFrom") LocalDateTime freeFrom,
+                                              @Param("freeTo") LocalDateTime freeTo,
+                                              @Param("statuses") Collection<BookingStatus> statuses,
+                                              Pageable pageable);
+
     List<Item> findAllByRequestId(Long requestId);
 
     List<Item> findAllByRequestIdIn(List<Long> itemRequestIds);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<ItemSearchView> streamAllBy();
 }
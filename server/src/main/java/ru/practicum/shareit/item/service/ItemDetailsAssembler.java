@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.utility.BookingDtoMapper;
+import ru.practicum.shareit.utility.CommentDtoMapper;
+import ru.practicum.shareit.utility.ItemDtoMapper;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Groups the bookings and comments loaded for one request by item, so each item is assembled with a
+ * binary search over its own start-sorted approved bookings and only its own comments.
+ */
+final class ItemDetailsAssembler {
+    private final Map<Long, ItemBookings> bookingsByItem;
+    private final Map<Long, List<Comment>> commentsByItem;
+    private final LocalDateTime now;
+
+    ItemDetailsAssembler(List<Booking> bookings, List<Comment> comments, LocalDateTime now) {
+        this.bookingsByItem = bookings.stream()
+                .filter(b -> b.getStatus() == BookingStatus.APPROVED)
+                .collect(Collectors.groupingBy(b -> b.getItem().getId(),
+                        Collectors.collectingAndThen(Collectors.toList(), ItemBookings::new)));
+        this.commentsByItem = comments == null ? null : comments.stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
+        this.now = now;
+    }
+
+    ItemResponseDto assemble(Long userId, Item item) {
+        ItemResponseDto dto = ItemDtoMapper.toDto(item);
+
+        ItemBookings itemBookings = bookingsByItem.get(item.getId());
+        if (itemBookings != null && Objects.equals(item.getUser().getId(), userId)) {
+            int firstUpcoming = itemBookings.firstStartingAtOrAfter(now);
+            if (firstUpcoming > 0) {
+                dto.setLastBooking(BookingDtoMapper.toBookingRequestDto(itemBookings.latestEndingBefore(firstUpcoming)));
+            }
+            if (firstUpcoming < itemBookings.starts.length) {
+                dto.setNextBooking(BookingDtoMapper.toBookingRequestDto(itemBookings.byStart.get(firstUpcoming)));
+            }
+        }
+
+        if (commentsByItem != null) {
+            dto.setComments(commentsByItem.getOrDefault(item.getId(), List.of()).stream()
+                    .map(CommentDtoMapper::toResponseDto)
+                    .collect(Collectors.toList()));
+        }
+        return dto;
+    }
+
+    private static final class ItemBookings {
+        private final List<Booking> byStart;
+        private final LocalDateTime[] starts;
+        private final int[] latestEndIndex;
+
+        private ItemBookings(List<Booking> bookings) {
+            byStart = new ArrayList<>(bookings);
+            byStart.sort(Comparator.comparing(Booking::getStart));
+            starts = new LocalDateTime[byStart.size()];
+            latestEndIndex = new int[byStart.size()];
+            for (int i = 0; i < byStart.size(); i++) {
+                starts[i] = byStart.get(i).getStart();
+                latestEndIndex[i] = i > 0 && !byStart.get(i).getEnd().isAfter(byStart.get(latestEndIndex[i - 1]).getEnd())
+                        ? latestEndIndex[i - 1]
+                        : i;
+            }
+        }
+
+        private int firstStartingAtOrAfter(LocalDateTime time) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle].isBefore(time)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private Booking latestEndingBefore(int index) {
+            return byStart.get(latestEndIndex[index - 1]);
+        }
+    }
+}
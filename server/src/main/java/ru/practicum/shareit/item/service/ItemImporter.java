@@ -0,0 +1,364 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.dto.ItemImportProgressDto;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserValidator;
+import ru.practicum.shareit.utility.CsvRecordReader;
+import ru.practicum.shareit.utility.ItemDtoMapper;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Imports items from NDJSON, or CSV with a header row, reading one row at a time so memory does not grow
+ * with the upload; a row longer than {@code shareit.import.max-record-length} characters is skipped without
+ * being buffered. Rows are validated like {@link ItemRequestDto} and saved in chunks, one transaction
+ * per chunk, so a failed chunk does not undo the ones before it.
+ */
+@Slf4j
+@Component
+public class ItemImporter {
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    static final int CHUNK_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final UserRepository userRepository;
+    private final UserValidator userValidator;
+    private final ItemSearchIndex itemSearchIndex;
+    private final Validator validator;
+    private final ObjectReader rowReader;
+    private final TransactionTemplate transaction;
+    private final int maxRecordLength;
+
+    public ItemImporter(ItemRepository itemRepository,
+                        ItemRequestRepository itemRequestRepository,
+                        UserRepository userRepository,
+                        UserValidator userValidator,
+                        ItemSearchIndex itemSearchIndex,
+                        Validator validator,
+                        ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${shareit.import.max-record-length:65536}") int maxRecordLength) {
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.userRepository = userRepository;
+        this.userValidator = userValidator;
+        this.itemSearchIndex = itemSearchIndex;
+        this.validator = validator;
+        this.rowReader = objectMapper.readerFor(ItemRequestDto.class);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Reports every rejected row and the counters after every saved chunk to {@code listener}, and
+     * returns the final counters.
+     */
+    public ItemImportProgressDto importItems(Long userId, MediaType contentType, InputStream body,
+                                             Consumer<ItemImportProgressDto> listener) throws IOException {
+        userValidator.requireExists(userId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        RowSource rows = contentType.isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? new CsvRows(reader, maxRecordLength)
+                : new NdjsonRows(reader);
+
+        long processed = 0;
+        long imported = 0;
+        long failed = 0;
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (Row row = rows.next(); row != null; row = rows.next()) {
+            processed++;
+            String error = row.error != null ? row.error : validate(row.item);
+            if (error != null) {
+                failed++;
+                listener.accept(ItemImportProgressDto.rowError(row.number, error));
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                int saved = saveChunk(userId, chunk, listener);
+                imported += saved;
+                failed += chunk.size() - saved;
+                chunk.clear();
+                listener.accept(ItemImportProgressDto.progress(processed, imported, failed, false));
+            }
+        }
+        if (!chunk.isEmpty()) {
+            int saved = saveChunk(userId, chunk, listener);
+            imported += saved;
+            failed += chunk.size() - saved;
+        }
+
+        ItemImportProgressDto result = ItemImportProgressDto.progress(processed, imported, failed, true);
+        listener.accept(result);
+        log.info("Imported {} of {} items for user {}", imported, processed, userId);
+        return result;
+    }
+
+    private int saveChunk(Long userId, List<Row> chunk, Consumer<ItemImportProgressDto> listener) {
+        Set<Long> requestIds = chunk.stream()
+                .map(row -> row.item.getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<Row> missingRequest = new ArrayList<>();
+        List<Item> saved;
+        try {
+            saved = transaction.execute(status -> {
+                Set<Long> existingRequests = requestIds.isEmpty() ? Set.of() :
+                        itemRequestRepository.findAllById(requestIds).stream()
+                                .map(ItemRequest::getId)
+                                .collect(Collectors.toSet());
+                User owner = userRepository.getReferenceById(userId);
+                List<Item> items = new ArrayList<>(chunk.size());
+                for (Row row : chunk) {
+                    Long requestId = row.item.getRequestId();
+                    if (requestId != null && !existingRequests.contains(requestId)) {
+                        missingRequest.add(row);
+                        continue;
+                    }
+                    Item item = ItemDtoMapper.toItem(row.item);
+                    item.setRequestId(requestId);
+                    item.setUser(owner);
+                    items.add(item);
+                }
+                return itemRepository.saveAll(items);
+            });
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Import chunk of {} items for user {} failed", chunk.size(), userId, e);
+            chunk.forEach(row -> listener.accept(ItemImportProgressDto.rowError(row.number,
+                    "Not saved: " + e.getMostSpecificCause().getMessage())));
+            return 0;
+        }
+
+        saved.forEach(itemSearchIndex::put);
+        missingRequest.forEach(row -> listener.accept(ItemImportProgressDto.rowError(row.number,
+                "Request with id = " + row.item.getRequestId() + " not found")));
+        return saved.size();
+    }
+
+    private String validate(ItemRequestDto item) {
+        Set<ConstraintViolation<ItemRequestDto>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static final class Row {
+        private final long number;
+        private final ItemRequestDto item;
+        private final String error;
+
+        private Row(long number, ItemRequestDto item, String error) {
+            this.number = number;
+            this.item = item;
+            this.error = error;
+        }
+    }
+
+    private interface RowSource {
+        /**
+         * Returns {@code null} at the end of the input.
+         */
+        Row next() throws IOException;
+    }
+
+    /**
+     * One JSON object per line; blank lines are skipped, rows are numbered by line. Each row is parsed straight from
+     * the input, so it is never held as text.
+     */
+    private final class NdjsonRows implements RowSource {
+        private final LineReader line;
+        private long number;
+
+        private NdjsonRows(BufferedReader reader) {
+            this.line = new LineReader(reader, maxRecordLength);
+        }
+
+        @Override
+        public Row next() throws IOException {
+            while (line.next()) {
+                number++;
+                try (MappingIterator<ItemRequestDto> values = rowReader.readValues(line)) {
+                    if (!values.hasNextValue()) {
+                        continue;
+                    }
+                    ItemRequestDto item = values.nextValue();
+                    return item != null ? new Row(number, item, null) : new Row(number, null, "Malformed JSON: null");
+                } catch (CsvRecordReader.RecordTooLongException e) {
+                    return new Row(number, null, "Row is longer than " + maxRecordLength + " characters");
+                } catch (JsonProcessingException e) {
+                    return new Row(number, null, "Malformed JSON: " + e.getOriginalMessage());
+                } finally {
+                    line.skipRest();
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The current line of the input without its line break. Reading more than {@code maxLength} characters of it
+     * fails with {@link CsvRecordReader.RecordTooLongException}; closing it leaves the input open.
+     */
+    private static final class LineReader extends Reader {
+        private final BufferedReader reader;
+        private final int maxLength;
+        private int length;
+        private boolean ended = true;
+
+        private LineReader(BufferedReader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * Moves to the next line; returns {@code false} at the end of the input.
+         */
+        private boolean next() throws IOException {
+            skipRest();
+            reader.mark(1);
+            if (reader.read() == -1) {
+                return false;
+            }
+            reader.reset();
+            length = 0;
+            ended = false;
+            return true;
+        }
+
+        private void skipRest() throws IOException {
+            while (!ended) {
+                int c = reader.read();
+                ended = c == -1 || c == '\n';
+            }
+        }
+
+        @Override
+        public int read(char[] chars, int offset, int count) throws IOException {
+            int read = 0;
+            while (read < count && !ended) {
+                int c = reader.read();
+                if (c == -1 || c == '\n') {
+                    ended = true;
+                } else if (++length > maxLength) {
+                    throw new CsvRecordReader.RecordTooLongException(maxLength);
+                } else {
+                    chars[offset + read++] = (char) c;
+                }
+            }
+            return read == 0 && ended ? -1 : read;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Header row with the columns name, description, available and optionally requestId, in any order;
+     * rows are numbered from 1 after the header.
+     */
+    private static final class CsvRows implements RowSource {
+        private final CsvRecordReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long record;
+
+        private CsvRows(BufferedReader reader, int maxRecordLength) throws IOException {
+            this.reader = new CsvRecordReader(reader, maxRecordLength);
+            List<String> header;
+            try {
+                header = this.reader.next();
+            } catch (CsvRecordReader.RecordTooLongException | CsvRecordReader.UnterminatedRecordException e) {
+                throw new BadRequestException("CSV header: " + e.getMessage());
+            }
+            if (header != null) {
+                for (int i = 0; i < header.size(); i++) {
+                    columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+                }
+            }
+            if (!columns.keySet().containsAll(Set.of("name", "description", "available"))) {
+                throw new BadRequestException("CSV header must contain the columns name, description and available");
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            List<String> fields;
+            do {
+                try {
+                    fields = reader.next();
+                } catch (CsvRecordReader.RecordTooLongException | CsvRecordReader.UnterminatedRecordException e) {
+                    return new Row(++record, null, e.getMessage());
+                }
+            } while (fields != null && fields.size() == 1 && fields.get(0).isBlank());
+            if (fields == null) {
+                return null;
+            }
+            record++;
+
+            String available = field(fields, "available");
+            String requestId = field(fields, "requestid");
+            if (available != null && !available.equalsIgnoreCase("true") && !available.equalsIgnoreCase("false")) {
+                return new Row(record, null, "available: must be true or false");
+            }
+            if (requestId != null && (requestId.length() > 18 || !requestId.chars().allMatch(Character::isDigit))) {
+                return new Row(record, null, "requestId: must be a number");
+            }
+            return new Row(record, ItemRequestDto.builder()
+                    .name(field(fields, "name"))
+                    .description(field(fields, "description"))
+                    .available(available != null ? Boolean.valueOf(available) : null)
+                    .requestId(requestId != null ? Long.valueOf(requestId) : null)
+                    .build(), null);
+        }
+
+        private String field(List<String> fields, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+                return null;
+            }
+            return fields.get(index);
+        }
+    }
+}
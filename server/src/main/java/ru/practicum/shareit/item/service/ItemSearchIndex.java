@@ -0,0 +1,358 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.utility.TransactionCallbacks.afterCommit;
+
+/**
+ * Trigram index over name and description of available items. Matches the semantics of
+ * {@link ItemRepository#searchAvailableItem}: case-insensitive substring search, results ordered by id.
+ * It is rebuilt from the primary, so items written just before a rebuild are not lost to replica lag.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex implements SmartInitializingSingleton {
+    private static final int GRAM_LENGTH = 3;
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate primaryTransaction;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postingsByGram = new HashMap<>();
+    private final Map<Long, IndexedItem> itemsById = new HashMap<>();
+    private final Postings allIds = new Postings();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.search.index.enabled:false}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        ready = false;
+        long startedAt = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            postingsByGram.clear();
+            itemsById.clear();
+            allIds.clear();
+            primaryTransaction.executeWithoutResult(status -> {
+                try (Stream<ItemSearchView> items = itemRepository.streamAllBy()) {
+                    items.forEach(view -> index(view.getId(), toIndexed(toItem(view))));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Item search index rebuilt in {} ms: {} items, {} grams, ~{} bytes",
+                System.currentTimeMillis() - startedAt, getIndexedItemCount(), getGramCount(),
+                getEstimatedMemoryBytes());
+    }
+
+    /**
+     * Indexes the item once the current transaction commits, or right away outside a transaction, so a
+     * rolled-back write never becomes searchable.
+     */
+    public void put(Item item) {
+        if (!enabled || item.getId() == null) {
+            return;
+        }
+        long itemId = item.getId();
+        IndexedItem indexed = toIndexed(item);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(itemId);
+                index(itemId, indexed);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Returns empty if the index is disabled or not built yet, so the caller should fall back to the database;
+     * such searches count as misses.
+     */
+    public Optional<List<Item>> search(String text, int offset, int limit) {
+        return search(text, offset, limit, id -> true);
+    }
+
+    /**
+     * Same as {@link #search(String, int, int)}, skipping items rejected by the filter before paging. A
+     * {@code null} filter, one the caller could not build, leaves the search to the database as well.
+     */
+    public Optional<List<Item>> search(String text, int offset, int limit, @Nullable LongPredicate filter) {
+        if (!ready || filter == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+
+        String query = text.toLowerCase(Locale.ROOT);
+        List<Item> found = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            Postings candidates = smallestPostings(query);
+            int skipped = 0;
+            for (int i = 0; i < candidates.size && found.size() < limit; i++) {
+                IndexedItem candidate = itemsById.get(candidates.ids[i]);
+                if (!candidate.matches(query) || !filter.test(candidate.id)) {
+                    continue;
+                }
+                if (skipped++ < offset) {
+                    continue;
+                }
+                found.add(candidate.toItem());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Optional.of(found);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long total = getHitCount() + getMissCount();
+        return total == 0 ? 0 : (double) getHitCount() / total;
+    }
+
+    public int getIndexedItemCount() {
+        lock.readLock().lock();
+        try {
+            return itemsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getGramCount() {
+        lock.readLock().lock();
+        try {
+            return postingsByGram.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough heap footprint: posting arrays, map entries and the retained item text.
+     */
+    public long getEstimatedMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = allIds.estimatedBytes();
+            for (Postings postings : postingsByGram.values()) {
+                bytes += 64 + postings.estimatedBytes();
+            }
+            for (IndexedItem item : itemsById.values()) {
+                bytes += 64 + item.estimatedBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Postings smallestPostings(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return allIds;
+        }
+        Postings smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            Postings postings = postingsByGram.get(gram(query, i));
+            if (postings == null) {
+                return Postings.EMPTY;
+            }
+            if (smallest == null || postings.size < smallest.size) {
+                smallest = postings;
+            }
+        }
+        return smallest;
+    }
+
+    private void index(long itemId, IndexedItem indexed) {
+        if (indexed == null) {
+            return;
+        }
+        itemsById.put(itemId, indexed);
+        allIds.add(itemId);
+        for (long gram : indexed.grams()) {
+            postingsByGram.computeIfAbsent(gram, g -> new Postings()).add(itemId);
+        }
+    }
+
+    private void remove(long itemId) {
+        IndexedItem indexed = itemsById.remove(itemId);
+        if (indexed == null) {
+            return;
+        }
+        allIds.remove(itemId);
+        for (long gram : indexed.grams()) {
+            Postings postings = postingsByGram.get(gram);
+            if (postings != null && postings.remove(itemId) && postings.size == 0) {
+                postingsByGram.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Returns {@code null} for items that are not available, as those are not searchable.
+     */
+    private static IndexedItem toIndexed(Item item) {
+        return Boolean.TRUE.equals(item.getAvailable()) ? new IndexedItem(item) : null;
+    }
+
+    private static long gram(String text, int from) {
+        return (long) text.charAt(from) << 32 | (long) text.charAt(from + 1) << 16 | text.charAt(from + 2);
+    }
+
+    private static Item toItem(ItemSearchView view) {
+        return Item.builder()
+                .id(view.getId())
+                .name(view.getName())
+                .description(view.getDescription())
+                .available(view.getAvailable())
+                .requestId(view.getRequestId())
+                .build();
+    }
+
+    private static final class IndexedItem {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final Long requestId;
+        private final String searchText;
+
+        private IndexedItem(Item item) {
+            this.id = item.getId();
+            this.name = item.getName();
+            this.description = item.getDescription();
+            this.requestId = item.getRequestId();
+            this.searchText = lower(name) + FIELD_SEPARATOR + lower(description);
+        }
+
+        private boolean matches(String query) {
+            return searchText.contains(query);
+        }
+
+        private Set<Long> grams() {
+            Set<Long> grams = new HashSet<>();
+            int separator = searchText.indexOf(FIELD_SEPARATOR);
+            addGrams(grams, searchText, 0, separator);
+            addGrams(grams, searchText, separator + 1, searchText.length());
+            return grams;
+        }
+
+        private Item toItem() {
+            return Item.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .available(true)
+                    .requestId(requestId)
+                    .build();
+        }
+
+        private long estimatedBytes() {
+            return 48 + 2L * (searchText.length() + length(name) + length(description));
+        }
+
+        private static void addGrams(Set<Long> grams, String text, int from, int to) {
+            for (int i = from; i + GRAM_LENGTH <= to; i++) {
+                grams.add(gram(text, i));
+            }
+        }
+
+        private static String lower(String text) {
+            return text == null ? "" : text.toLowerCase(Locale.ROOT);
+        }
+
+        private static int length(String text) {
+            return text == null ? 0 : text.length();
+        }
+    }
+
+    private static final class Postings {
+        private static final Postings EMPTY = new Postings();
+
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        private boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        private void clear() {
+            ids = new long[4];
+            size = 0;
+        }
+
+        private long estimatedBytes() {
+            return 16 + 8L * ids.length;
+        }
+    }
+}
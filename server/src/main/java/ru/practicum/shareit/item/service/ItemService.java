@@ -2,9 +2,11 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -18,5 +20,10 @@ public interface ItemService {
 
     List<ItemResponseDto> searchAvailableItem(String text, Integer from, Integer size);
 
+    List<ItemResponseDto> searchAvailableItemFreeBetween(String text, LocalDateTime freeFrom, LocalDateTime freeTo,
+                                                         Integer from, Integer size);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
     CommentResponseDto addComment(Long userId, Long itemId, CommentRequestDto commentRequestDto);
 }
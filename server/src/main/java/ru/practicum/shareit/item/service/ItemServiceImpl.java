@@ -5,13 +5,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.AvailabilityCalendar;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Comment;
@@ -21,15 +24,17 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
-import ru.practicum.shareit.utility.BookingDtoMapper;
+import ru.practicum.shareit.user.service.UserValidator;
 import ru.practicum.shareit.utility.CommentDtoMapper;
 import ru.practicum.shareit.utility.ItemDtoMapper;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.LongPredicate;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 @Slf4j
 public class ItemServiceImpl implements ItemService {
@@ -38,8 +43,12 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final UserValidator userValidator;
+    private final AvailabilityCalendar availabilityCalendar;
 
     @Override
+    @Transactional
     public ItemResponseDto addItem(Long userId, ItemRequestDto itemRequestDto) {
         Item item = ItemDtoMapper.toItem(itemRequestDto);
 
@@ -54,20 +63,21 @@ public class ItemServiceImpl implements ItemService {
         item.setUser(owner);
 
         Item savedItem = itemRepository.save(item);
+        itemSearchIndex.put(savedItem);
         return ItemDtoMapper.toDto(savedItem);
     }
 
     @Override
+    @Transactional
     public ItemResponseDto updateItem(Long userId, Long itemId, ItemRequestDto itemRequestDto) {
         Item item = ItemDtoMapper.toItem(itemRequestDto);
 
         Item itemToUpdate = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item with id = " + itemId + " not found"));
 
-        User owner = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id = " + userId + " not found"));
+        userValidator.requireExists(userId);
 
-        if (!Objects.equals(owner.getId(), itemToUpdate.getUser().getId())) {
+        if (!Objects.equals(userId, itemToUpdate.getUser().getId())) {
             throw new NotFoundException("User with id = " + userId + " not owned by itemId = " + itemToUpdate.getId());
         }
 
@@ -82,6 +92,7 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updatedItem = itemRepository.save(itemToUpdate);
+        itemSearchIndex.put(updatedItem);
         return ItemDtoMapper.toDto(updatedItem);
     }
 
@@ -94,7 +105,7 @@ public class ItemServiceImpl implements ItemService {
 
         List<Comment> comments = commentRepository.findAllByItemId(item.getId());
 
-        return makeItemWithBookingsAndComments(userId, item, bookingsForItems, comments);
+        return new ItemDetailsAssembler(bookingsForItems, comments, LocalDateTime.now()).assemble(userId, item);
     }
 
     @Override
@@ -103,13 +114,21 @@ public class ItemServiceImpl implements ItemService {
         Pageable pageable = PageRequest.of(page, size);
 
         List<Item> items = itemRepository.findAllByUserIdOrderById(userId, pageable);
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        List<Booking> bookingsForItems = bookingRepository.findAllByItemInOrderByEndDesc(items);
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        List<Booking> bookingsForItems = bookingRepository.findLastAndNextApprovedByItemIds(itemIds, now);
 
         List<Comment> comments = commentRepository.findAllByItemIn(items);
 
+        ItemDetailsAssembler assembler = new ItemDetailsAssembler(bookingsForItems, comments, now);
         return items.stream()
-                .map(i -> this.makeItemWithBookingsAndComments(userId, i, bookingsForItems, comments))
+                .map(i -> assembler.assemble(userId, i))
                 .collect(Collectors.toList());
     }
 
@@ -122,12 +141,47 @@ public class ItemServiceImpl implements ItemService {
         int page = from / size;
         Pageable pageable = PageRequest.of(page, size);
 
-        return itemRepository.searchAvailableItem(text, pageable).stream()
+        List<Item> items = itemSearchIndex.search(text, (int) pageable.getOffset(), size)
+                .orElseGet(() -> itemRepository.searchAvailableItem(text, pageable));
+
+        return items.stream()
+                .map(ItemDtoMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ItemResponseDto> searchAvailableItemFreeBetween(String text, LocalDateTime freeFrom,
+                                                                LocalDateTime freeTo, Integer from, Integer size) {
+        requireValidPeriod(freeFrom, freeTo);
+
+        int page = from / size;
+        Pageable pageable = PageRequest.of(page, size);
+
+        LongPredicate isFree = availabilityCalendar.freeBetween(freeFrom, freeTo).orElse(null);
+        List<Item> items = itemSearchIndex.search(text, (int) pageable.getOffset(), size, isFree)
+                .orElseGet(() -> itemRepository.searchAvailableItemFreeBetween(text, freeFrom, freeTo,
+                        BookingStatus.RESERVING, pageable));
+
+        return items.stream()
                 .map(ItemDtoMapper::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        requireValidPeriod(from, to);
+
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Item with id = " + itemId + " not found"));
+
+        boolean reserved = availabilityCalendar.isReserved(itemId, from, to)
+                .orElseGet(() -> bookingRepository.existsOverlapping(itemId, from, to, BookingStatus.RESERVING));
+
+        return new ItemAvailabilityDto(itemId, from, to, Boolean.TRUE.equals(item.getAvailable()) && !reserved);
+    }
+
+    @Override
+    @Transactional
     public CommentResponseDto addComment(Long userId, Long itemId, CommentRequestDto commentRequestDto) {
         User author = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User with id = " + userId + " not found"));
@@ -151,37 +205,12 @@ public class ItemServiceImpl implements ItemService {
         return CommentDtoMapper.toResponseDto(savedComment);
     }
 
-    private ItemResponseDto makeItemWithBookingsAndComments(Long userId, Item item, List<Booking> bookings,
-                                                            List<Comment> comments) {
-        LocalDateTime now = LocalDateTime.now();
-
-        Optional<Booking> last = bookings.stream()
-                .filter(b -> b.getStatus().equals(BookingStatus.APPROVED) &&
-                        Objects.equals(b.getItem().getUser().getId(), userId) &&
-                        Objects.equals(b.getItem().getId(), item.getId()) &&
-                        b.getStart().isBefore(now))
-                .findFirst();
-
-
-        List<Booking> bookingsForItemOrderByStartAsc = bookings.stream()
-                .sorted(Comparator.comparing(Booking::getStart))
-                .collect(Collectors.toList());
-
-        Optional<Booking> next = bookingsForItemOrderByStartAsc.stream()
-                .filter(b -> b.getStatus().equals(BookingStatus.APPROVED) &&
-                        Objects.equals(b.getItem().getUser().getId(), userId) &&
-                        Objects.equals(b.getItem().getId(), item.getId()) &&
-                        b.getStart().isAfter(now) || b.getStart().isEqual(now))
-                .findFirst();
-
-        ItemResponseDto dto = ItemDtoMapper.toDto(item);
-        last.ifPresent(booking -> dto.setLastBooking(BookingDtoMapper.toBookingRequestDto(last.get())));
-        next.ifPresent(booking -> dto.setNextBooking(BookingDtoMapper.toBookingRequestDto(next.get())));
-        if (comments != null) {
-            dto.setComments(comments.stream()
-                    .map(CommentDtoMapper::toResponseDto)
-                    .collect(Collectors.toList()));
+    private static void requireValidPeriod(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) {
+            throw new BadRequestException("Both ends of the period must be set");
+        }
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("End time must be after start time");
         }
-        return dto;
     }
 }
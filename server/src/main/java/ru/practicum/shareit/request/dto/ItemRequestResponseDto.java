@@ -4,7 +4,6 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import ru.practicum.shareit.item.model.Item;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,5 +19,5 @@ public class ItemRequestResponseDto {
 
     private LocalDateTime created;
 
-    private List<Item> items;
+    private List<RequestedItemDto> items;
 }
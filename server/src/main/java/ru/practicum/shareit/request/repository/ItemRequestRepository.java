@@ -2,6 +2,8 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -10,7 +12,8 @@ import java.util.List;
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findAllByOwnerId(Long ownerId);
+    @Query("select r from ItemRequest r where r.owner.id = :ownerId")
+    List<ItemRequest> findAllByOwnerId(@Param("ownerId") Long ownerId);
 
     List<ItemRequest> findAllByOwnerIdNot(Long ownerId, Pageable pageable);
 }
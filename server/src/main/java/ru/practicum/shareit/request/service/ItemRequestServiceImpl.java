@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -13,20 +14,25 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserValidator;
 import ru.practicum.shareit.utility.ItemRequestDtoMapper;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final UserValidator userValidator;
 
     @Override
+    @Transactional
     public ItemRequestResponseDto addRequest(Long userId, ItemRequestRequestDto itemRequestRequestDto) {
         ItemRequest itemRequest = ItemRequestDtoMapper.toItemRequest(itemRequestRequestDto);
         User owner = userRepository.findById(userId)
@@ -39,17 +45,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestResponseDto> getMyRequests(Long userId) {
-        User owner = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id = " + userId + " not found"));
-        List<ItemRequest> itemRequests = itemRequestRepository.findAllByOwnerId(owner.getId());
+        userValidator.requireExists(userId);
+        List<ItemRequest> itemRequests = itemRequestRepository.findAllByOwnerId(userId);
 
-        List<Item> items = itemRepository.findAllByRequestIdIn(itemRequests.stream()
-                .map(ItemRequest::getId)
-                .collect(Collectors.toList()));
-
-        return itemRequests.stream()
-                .map(itemRequest -> makeItemRequestWithItems(itemRequest, items))
-                .collect(Collectors.toList());
+        return makeItemRequestsWithItems(itemRequests);
     }
 
     @Override
@@ -59,19 +58,12 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByOwnerIdNot(userId, pageable);
 
-        List<Item> items = itemRepository.findAllByRequestIdIn(itemRequests.stream()
-                .map(ItemRequest::getId)
-                .collect(Collectors.toList()));
-
-        return itemRequests.stream()
-                .map(itemRequest -> makeItemRequestWithItems(itemRequest, items))
-                .collect(Collectors.toList());
+        return makeItemRequestsWithItems(itemRequests);
     }
 
     @Override
     public ItemRequestResponseDto getRequest(Long userId, Long requestId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User with id = " + userId + " not found"));
+        userValidator.requireExists(userId);
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Request with id = " + requestId + " not found"));
 
@@ -80,9 +72,23 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return makeItemRequestWithItems(itemRequest, items);
     }
 
+    private List<ItemRequestResponseDto> makeItemRequestsWithItems(List<ItemRequest> itemRequests) {
+        Map<Long, List<Item>> itemsByRequest = itemRepository.findAllByRequestIdIn(itemRequests.stream()
+                        .map(ItemRequest::getId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+
+        return itemRequests.stream()
+                .map(itemRequest -> makeItemRequestWithItems(itemRequest,
+                        itemsByRequest.getOrDefault(itemRequest.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
     private ItemRequestResponseDto makeItemRequestWithItems(ItemRequest itemRequest, List<Item> items) {
         ItemRequestResponseDto responseDto = ItemRequestDtoMapper.toItemRequestResponseDto(itemRequest);
-        responseDto.setItems(items);
+        responseDto.setItems(items.stream()
+                .map(ItemRequestDtoMapper::toRequestedItemDto)
+                .collect(Collectors.toList()));
         return responseDto;
     }
 }
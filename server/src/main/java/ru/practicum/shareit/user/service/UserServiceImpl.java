@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.dto.UserResponseDto;
@@ -15,18 +16,23 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserValidator userValidator;
 
     @Override
+    @Transactional
     public UserResponseDto saveUser(UserRequestDto userRequestDto) {
         User user = UserDtoMapper.toUser(userRequestDto);
         User savedUser = userRepository.save(user);
+        userValidator.userCreated(savedUser.getId());
         return UserDtoMapper.toDto(savedUser);
     }
 
     @Override
+    @Transactional
     public UserResponseDto updateUser(Long userId, UserRequestDto userRequestDto) {
         User user = UserDtoMapper.toUser(userRequestDto);
 
@@ -62,7 +68,9 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        userValidator.userDeleted(id);
     }
 }
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+import static ru.practicum.shareit.utility.TransactionCallbacks.afterCommit;
+
+/**
+ * Checks that a user exists without loading it. Ids confirmed on this node are remembered for a while, so
+ * repeated requests of the same user skip the database; any other id costs one primary key probe. Creations and
+ * deletions are applied once their transaction commits. A user deleted on another node may be reported as
+ * existing until its entry expires.
+ */
+@Component
+public class UserValidator {
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> confirmedIds;
+
+    public UserValidator(UserRepository userRepository,
+                         @Value("${shareit.user-validation.ttl:60s}") Duration ttl,
+                         @Value("${shareit.user-validation.max-size:100000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.confirmedIds = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    public void requireExists(Long userId) {
+        if (confirmedIds.getIfPresent(userId) != null) {
+            return;
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User with id = " + userId + " not found");
+        }
+        confirmedIds.put(userId, Boolean.TRUE);
+    }
+
+    public void userCreated(Long userId) {
+        afterCommit(() -> confirmedIds.put(userId, Boolean.TRUE));
+    }
+
+    public void userDeleted(Long userId) {
+        afterCommit(() -> confirmedIds.invalidate(userId));
+    }
+}
@@ -2,8 +2,11 @@ package ru.practicum.shareit.utility;
 
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 public final class BookingDtoMapper {
 
@@ -15,12 +18,23 @@ public final class BookingDtoMapper {
                 .id(booking.getId())
                 .start(booking.getStart())
                 .end(booking.getEnd())
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(ItemDtoMapper.toShortDto(booking.getItem()))
+                .booker(UserDtoMapper.toShortDto(booking.getBooker()))
                 .status(booking.getStatus())
                 .build();
     }
 
+    public static BookingResponseDto toDto(BookingView view) {
+        return BookingResponseDto.builder()
+                .id(view.getId())
+                .start(view.getStart())
+                .end(view.getEnd())
+                .item(new ItemShortDto(view.getItemId(), view.getItemName()))
+                .booker(new UserShortDto(view.getBookerId(), view.getBookerName()))
+                .status(view.getStatus())
+                .build();
+    }
+
     public static BookingRequestDto toBookingRequestDto(Booking booking) {
         return BookingRequestDto.builder()
                 .id(booking.getId())
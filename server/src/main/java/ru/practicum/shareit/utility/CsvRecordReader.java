@@ -0,0 +1,113 @@
+package ru.practicum.shareit.utility;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 records one at a time: comma separated, double-quoted fields may contain commas,
+ * line breaks and doubled quotes. At most {@code maxRecordLength} characters of a record are kept in
+ * memory; a longer record is read to its end without buffering and reported as {@link RecordTooLongException}.
+ */
+public final class CsvRecordReader {
+    private final Reader reader;
+    private final int maxRecordLength;
+    private int pending = -2;
+
+    public CsvRecordReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Returns the fields of the next record, or {@code null} at the end of the input. After a
+     * {@link RecordTooLongException} the reader is positioned at the following record; after an
+     * {@link UnterminatedRecordException} it is at the end of the input.
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean tooLong = false;
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        while (true) {
+            int append = -1;
+            if (quoted) {
+                if (c == -1) {
+                    throw new UnterminatedRecordException();
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        append = '"';
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    append = c;
+                }
+            } else if (c == '"' && !fieldStarted) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStarted = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pending = next;
+                    }
+                }
+                if (tooLong) {
+                    throw new RecordTooLongException(maxRecordLength);
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                append = c;
+                fieldStarted = true;
+            }
+            if (append != -1) {
+                if (length++ < maxRecordLength) {
+                    field.append((char) append);
+                } else if (!tooLong) {
+                    tooLong = true;
+                    fields.clear();
+                    field.setLength(0);
+                }
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    public static final class RecordTooLongException extends IOException {
+        public RecordTooLongException(int maxRecordLength) {
+            super("Record is longer than " + maxRecordLength + " characters");
+        }
+    }
+
+    public static final class UnterminatedRecordException extends IOException {
+        public UnterminatedRecordException() {
+            super("Quoted field is not closed before the end of the input");
+        }
+    }
+}
@@ -6,4 +6,8 @@ public final class CustomHeaders {
     }
 
     public static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+
+    public static final String X_NEXT_CURSOR = "X-Next-Cursor";
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
 }
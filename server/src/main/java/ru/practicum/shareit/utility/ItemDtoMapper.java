@@ -2,6 +2,7 @@ package ru.practicum.shareit.utility;
 
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 
 public final class ItemDtoMapper {
@@ -19,6 +20,10 @@ public final class ItemDtoMapper {
                 .build();
     }
 
+    public static ItemShortDto toShortDto(Item item) {
+        return new ItemShortDto(item.getId(), item.getName());
+    }
+
     public static Item toItem(ItemRequestDto itemRequestDto) {
         return Item.builder()
                 .name(itemRequestDto.getName())
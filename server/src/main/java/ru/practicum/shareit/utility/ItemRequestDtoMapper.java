@@ -1,7 +1,9 @@
 package ru.practicum.shareit.utility;
 
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.dto.RequestedItemDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 public final class ItemRequestDtoMapper {
@@ -16,6 +18,20 @@ public final class ItemRequestDtoMapper {
                 .build();
     }
 
+    /**
+     * Reads only the owner's id, which an uninitialized owner proxy answers without a query.
+     */
+    public static RequestedItemDto toRequestedItemDto(final Item item) {
+        return RequestedItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .ownerId(item.getUser() != null ? item.getUser().getId() : null)
+                .build();
+    }
+
     public static ItemRequest toItemRequest(final ItemRequestRequestDto itemRequestRequestDto) {
         return ItemRequest.builder()
                 .description(itemRequestRequestDto.getDescription())
@@ -2,6 +2,7 @@ package ru.practicum.shareit.utility;
 
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.dto.UserResponseDto;
+import ru.practicum.shareit.user.dto.UserShortDto;
 import ru.practicum.shareit.user.model.User;
 
 public final class UserDtoMapper {
@@ -17,6 +18,10 @@ public final class UserDtoMapper {
                 .build();
     }
 
+    public static UserShortDto toShortDto(User user) {
+        return new UserShortDto(user.getId(), user.getName());
+    }
+
     public static User toUser(UserRequestDto userRequestDto) {
         return User.builder()
                 .name(userRequestDto.getName())
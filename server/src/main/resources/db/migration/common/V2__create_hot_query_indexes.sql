@@ -0,0 +1,17 @@
+-- BookingRepository.findAllByBookerId*, keyset paging by (start_date, id)
+CREATE INDEX IF NOT EXISTS ix_booking_booker_start ON booking (booker_id, start_date DESC, id DESC);
+
+-- BookingRepository.findAllByItemIdOrderByEndDesc, findLastAndNextApprovedByItemIds, owner listings joined via items
+CREATE INDEX IF NOT EXISTS ix_booking_item_end ON booking (item_id, end_date DESC);
+
+-- ItemRepository.findAllByUserIdOrderById, BookingRepository.findAllBookingsByItem_UserId*
+CREATE INDEX IF NOT EXISTS ix_items_user ON items (user_id, id);
+
+-- ItemRepository.findAllByRequestId, findAllByRequestIdIn
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+
+-- CommentRepository.findAllByItemId, findAllByItemIn
+CREATE INDEX IF NOT EXISTS ix_comments_item ON comments (item_id);
+
+-- ItemRequestRepository.findAllByOwnerId
+CREATE INDEX IF NOT EXISTS ix_requests_owner ON requests (owner_id);
@@ -0,0 +1,5 @@
+-- Booking.version, optimistic locking of status changes in BookingServiceImpl.handleBooking
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Booking.statusKey, Idempotency-Key of the request that set the current status
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS status_key VARCHAR(64);
@@ -0,0 +1,3 @@
+-- Booking ids are allocated from a pooled sequence (Booking.id, allocationSize 50), so Hibernate can batch
+-- the inserts of POST /bookings/batch; the identity default stays for rows inserted by hand
+CREATE SEQUENCE IF NOT EXISTS booking_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,6 @@
+-- Pooled id sequences of User, Item, Comment and ItemRequest (allocationSize 50), so Hibernate can batch
+-- their inserts like those of Booking (V5)
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
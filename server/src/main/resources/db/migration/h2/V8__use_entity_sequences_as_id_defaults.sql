@@ -0,0 +1,16 @@
+-- Rows inserted by hand draw from the pooled sequences: such a row takes the upper end of a block no
+-- session holds, so it never collides with ids allocated by Hibernate
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR users_seq;
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT NEXT VALUE FOR items_seq;
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT NEXT VALUE FOR comments_seq;
+
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT NEXT VALUE FOR requests_seq;
+
+ALTER TABLE booking ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE booking ALTER COLUMN id SET DEFAULT NEXT VALUE FOR booking_seq;
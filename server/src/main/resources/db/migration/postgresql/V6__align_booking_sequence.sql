@@ -0,0 +1,3 @@
+-- Starts the pooled booking_seq after the ids already taken through the identity column; Hibernate reads
+-- a value of the pooled sequence as the upper end of the next block of 50 ids
+SELECT setval('booking_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM booking), false);
@@ -0,0 +1,122 @@
+package ru.practicum.shareit;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk inserts of items and bookings with JDBC batching switched off (batch size 1) and with the configured
+ * batch size, both with ids from the pooled sequences; batching shows in the number of prepared statements.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-bulk-insert",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class EntityBulkInsertBatchingTest {
+    private static final int ROWS = 1_000;
+    private static final int FLUSH_EVERY = 500;
+    private static final int BATCH_SIZE = 50;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User owner;
+    private User booker;
+    private List<Item> items;
+    private LocalDateTime origin;
+
+    @BeforeEach
+    void seed() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(new User(null, "bulk-owner-" + suffix + "@email.com", "owner"));
+        booker = userRepository.save(new User(null, "bulk-booker-" + suffix + "@email.com", "booker"));
+        items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            items.add(itemRepository.save(new Item(null, "bulk item " + i, "description", owner, true, null)));
+        }
+        origin = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void bulkItemInsert_IsBatched() {
+        compare(i -> new Item(null, "Drill " + i, "bulk loaded item " + i, owner, i % 3 != 0, null));
+    }
+
+    @Test
+    void bulkBookingInsert_IsBatched() {
+        compare(i -> new Booking(null, origin.plusHours(i), origin.plusHours(i + 1L),
+                items.get(i % items.size()), booker, BookingStatus.WAITING));
+    }
+
+    private void compare(IntFunction<Object> entity) {
+        Run unbatched = insert(1, entity);
+        Run batched = insert(BATCH_SIZE, entity);
+
+        assertEquals(ROWS, unbatched.inserted);
+        assertEquals(ROWS, batched.inserted);
+        assertTrue(unbatched.statements >= ROWS, "unbatched run prepared " + unbatched.statements);
+        assertTrue(batched.statements < ROWS / 10, "batched run prepared " + batched.statements);
+    }
+
+    private Run insert(int batchSize, IntFunction<Object> entity) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            for (int i = 0; i < ROWS; i++) {
+                entityManager.persist(entity.apply(i));
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        return new Run(statistics.getEntityInsertCount(), statistics.getPrepareStatementCount());
+    }
+
+    private static final class Run {
+        private final long inserted;
+        private final long statements;
+
+        private Run(long inserted, long statements) {
+            this.inserted = inserted;
+            this.statements = statements;
+        }
+    }
+}
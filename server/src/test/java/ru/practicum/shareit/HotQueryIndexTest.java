@@ -0,0 +1,145 @@
+package ru.practicum.shareit;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs each hot finder, captures the SQL and bind values Hibernate sends, and EXPLAINs exactly that.
+ */
+@DataJpaTest
+class HotQueryIndexTest {
+    private static final ThreadLocal<List<QueryInfo>> CAPTURED = new ThreadLocal<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @TestFactory
+    Stream<DynamicTest> hotQueryUsesIndex() {
+        LocalDateTime now = LocalDateTime.of(2026, 1, 1, 0, 0);
+        Pageable byStartDesc = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"));
+        Map<String, Runnable> finders = new LinkedHashMap<>();
+        finders.put("findViewsByBookerId", () -> bookingRepository.findViewsByBookerId(1L, byStartDesc));
+        finders.put("findViewsByBookerIdAndStatus", () -> bookingRepository.findViewsByBookerIdAndStatus(1L,
+                BookingStatus.WAITING, byStartDesc));
+        finders.put("findPageAfter", () -> bookingRepository.findPageAfter(BookingSpecifications.bookerIs(1L)
+                .and(BookingSpecifications.inState(BookingState.ALL, now)), now, 10L, 11));
+        finders.put("findViewsByOwnerId", () -> bookingRepository.findViewsByOwnerId(1L, byStartDesc));
+        finders.put("findAllByItemIdOrderByEndDesc", () -> bookingRepository.findAllByItemIdOrderByEndDesc(1L));
+        finders.put("existsOverlapping", () -> bookingRepository.existsOverlapping(1L, now, now.plusDays(1),
+                BookingStatus.RESERVING));
+        finders.put("findPeriodsOverlapping", () -> bookingRepository.findPeriodsOverlapping(List.of(1L, 2L), now,
+                now.plusDays(1), BookingStatus.RESERVING));
+        finders.put("findAllByUserIdOrderById", () -> itemRepository.findAllByUserIdOrderById(1L,
+                PageRequest.of(0, 10)));
+        finders.put("findAllByRequestId", () -> itemRepository.findAllByRequestId(1L));
+        finders.put("findAllByItemId", () -> commentRepository.findAllByItemId(1L));
+        finders.put("findAllByOwnerId", () -> itemRequestRepository.findAllByOwnerId(1L));
+
+        return finders.entrySet().stream().map(finder -> DynamicTest.dynamicTest(finder.getKey(), () -> {
+            List<QueryInfo> queries = capture(finder.getValue());
+            assertFalse(queries.isEmpty(), finder.getKey() + " ran no statement");
+            for (QueryInfo query : queries) {
+                String plan = String.join("\n", jdbcTemplate.query("explain " + query.getQuery(),
+                        statement -> bind(statement, query), (row, number) -> row.getString(1)));
+
+                assertFalse(plan.toLowerCase(Locale.ROOT).contains("tablescan"),
+                        finder.getKey() + " scans a table:\n" + plan);
+            }
+        }));
+    }
+
+    private static List<QueryInfo> capture(Runnable finder) {
+        List<QueryInfo> queries = new ArrayList<>();
+        CAPTURED.set(queries);
+        try {
+            finder.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return queries;
+    }
+
+    private static void bind(PreparedStatement statement, QueryInfo query) throws SQLException {
+        for (ParameterSetOperation operation : query.getParametersList().get(0)) {
+            try {
+                operation.getMethod().invoke(statement, operation.getArgs());
+            } catch (ReflectiveOperationException e) {
+                throw new SQLException("Cannot replay " + operation.getMethod().getName(), e);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class QueryCaptureConfig {
+        @Bean
+        static BeanPostProcessor queryCapturingDataSource() {
+            QueryExecutionListener listener = new QueryExecutionListener() {
+                @Override
+                public void beforeQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+                }
+
+                @Override
+                public void afterQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+                    List<QueryInfo> captured = CAPTURED.get();
+                    if (captured != null) {
+                        captured.addAll(queries);
+                    }
+                }
+            };
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource
+                            ? ProxyDataSourceBuilder.create((DataSource) bean).listener(listener).build()
+                            : bean;
+                }
+            };
+        }
+    }
+}
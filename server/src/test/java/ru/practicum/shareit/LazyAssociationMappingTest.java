@@ -0,0 +1,166 @@
+package ru.practicum.shareit;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utility.BookingDtoMapper;
+import ru.practicum.shareit.utility.CommentDtoMapper;
+import ru.practicum.shareit.utility.ItemDtoMapper;
+import ru.practicum.shareit.utility.ItemRequestDtoMapper;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Fails when a mapper reads a lazy association its DTO does not carry, which would cost a query per row wherever
+ * the entities are loaded without that association. Entities are loaded with plain finds, without fetch plans.
+ * Responses are guarded by spring.jpa.open-in-view=false: a lazy association touched while serializing a response
+ * fails the request instead of loading silently.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit-lazy-mapping")
+class LazyAssociationMappingTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User owner;
+    private Item item;
+    private Booking booking;
+    private Comment comment;
+
+    @BeforeEach
+    void seed() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(new User(null, "lazy-owner-" + suffix + "@email.com", "owner"));
+        User booker = userRepository.save(new User(null, "lazy-booker-" + suffix + "@email.com", "booker"));
+        item = itemRepository.save(new Item(null, "Drill", "cordless drill", owner, true, 1L));
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        booking = bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker,
+                BookingStatus.APPROVED));
+        comment = commentRepository.save(Comment.builder()
+                .text("works well")
+                .item(item)
+                .author(booker)
+                .build());
+    }
+
+    @Test
+    void bookingToDto_DoesNotInitializeItemOwner() {
+        inTransaction(() -> {
+            // given
+            Booking loaded = entityManager.find(Booking.class, booking.getId());
+
+            // when
+            BookingDtoMapper.toDto(loaded);
+
+            // then
+            assertFalse(Hibernate.isInitialized(loaded.getItem().getUser()), "item owner initialized");
+        });
+    }
+
+    @Test
+    void bookingToBookingRequestDto_DoesNotInitializeItemOrBooker() {
+        inTransaction(() -> {
+            // given
+            Booking loaded = entityManager.find(Booking.class, booking.getId());
+
+            // when
+            BookingDtoMapper.toBookingRequestDto(loaded);
+
+            // then
+            assertFalse(Hibernate.isInitialized(loaded.getItem()), "item initialized");
+            assertFalse(Hibernate.isInitialized(loaded.getBooker()), "booker initialized");
+        });
+    }
+
+    @Test
+    void itemToDto_DoesNotInitializeOwner() {
+        inTransaction(() -> {
+            // given
+            Item loaded = entityManager.find(Item.class, item.getId());
+
+            // when
+            ItemDtoMapper.toDto(loaded);
+            ItemDtoMapper.toShortDto(loaded);
+            long ownerId = ItemRequestDtoMapper.toRequestedItemDto(loaded).getOwnerId();
+
+            // then
+            assertEquals(owner.getId(), ownerId);
+            assertFalse(Hibernate.isInitialized(loaded.getUser()), "owner initialized");
+        });
+    }
+
+    @Test
+    void commentToResponseDto_DoesNotInitializeItem() {
+        inTransaction(() -> {
+            // given
+            Comment loaded = entityManager.find(Comment.class, comment.getId());
+
+            // when
+            CommentDtoMapper.toResponseDto(loaded);
+
+            // then
+            assertFalse(Hibernate.isInitialized(loaded.getItem()), "item initialized");
+        });
+    }
+
+    @Test
+    void entityToStringEqualsHashCode_DoNotInitializeAssociations() {
+        inTransaction(() -> {
+            // given
+            Booking loaded = entityManager.find(Booking.class, booking.getId());
+            Comment loadedComment = entityManager.find(Comment.class, comment.getId());
+
+            // when
+            loaded.toString();
+            loaded.hashCode();
+            loaded.equals(booking);
+            loadedComment.toString();
+            loadedComment.hashCode();
+
+            // then
+            assertFalse(Hibernate.isInitialized(loaded.getItem()), "booking item initialized");
+            assertFalse(Hibernate.isInitialized(loaded.getBooker()), "booker initialized");
+            assertFalse(Hibernate.isInitialized(loadedComment.getAuthor()), "comment author initialized");
+        });
+    }
+
+    private void inTransaction(Runnable test) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.clear();
+            test.run();
+        });
+    }
+}
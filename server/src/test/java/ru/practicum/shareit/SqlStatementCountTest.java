@@ -0,0 +1,172 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utility.CustomHeaders;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fails when an endpoint issues more SQL statements than its budget, e.g. after an association
+ * starts loading lazily per row. Budgets do not depend on how many rows the seeded data returns.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SqlStatementCountTest {
+    private static final int ITEMS = 3;
+    private static final int BOOKINGS_PER_ITEM = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+    private Item item;
+    private Booking booking;
+    private ItemRequest request;
+
+    @BeforeAll
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        owner = userRepository.save(new User(null, "sql-count-owner@email.com", "owner"));
+        booker = userRepository.save(new User(null, "sql-count-booker@email.com", "booker"));
+        request = itemRequestRepository.save(new ItemRequest(null, "need a tool", LocalDateTime.now(), booker));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            User itemOwner = userRepository.save(new User(null, "sql-count-owner" + i + "@email.com", "owner" + i));
+            items.add(itemRepository.save(new Item(null, "sql count item " + i, "description", owner, true,
+                    request.getId())));
+            itemRepository.save(new Item(null, "foreign item " + i, "description", itemOwner, true, null));
+        }
+        for (Item seededItem : items) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                LocalDateTime start = now.plusDays(2L * i - BOOKINGS_PER_ITEM);
+                booking = bookingRepository.save(new Booking(null, start, start.plusDays(1), seededItem, booker,
+                        BookingStatus.APPROVED));
+            }
+            commentRepository.save(new Comment(null, "comment", seededItem, booker));
+            commentRepository.save(new Comment(null, "comment", seededItem, owner));
+        }
+        item = items.get(0);
+    }
+
+    @Test
+    void getBooking() {
+        assertStatements(1, get("/bookings/" + booking.getId()), booker);
+    }
+
+    @Test
+    void getAllBookingsForBooker() {
+        assertStatements(2, get("/bookings?state=ALL"), booker);
+    }
+
+    @Test
+    void getAllBookingsForBookerByCursor() {
+        assertStatements(2, get("/bookings?state=ALL&cursor="), booker);
+    }
+
+    @Test
+    void getAllBookingsForOwner() {
+        assertStatements(2, get("/bookings/owner?state=PAST"), owner);
+    }
+
+    @Test
+    void getItem() {
+        assertStatements(3, get("/items/" + item.getId()), owner);
+    }
+
+    @Test
+    void getAllItemsByOwner() {
+        assertStatements(3, get("/items"), owner);
+    }
+
+    @Test
+    void searchItem() {
+        assertStatements(1, get("/items/search?text=sql count"), booker);
+    }
+
+    @Test
+    void getMyRequests() {
+        assertStatements(3, get("/requests"), booker);
+    }
+
+    @Test
+    void getAllRequests() {
+        assertStatements(2, get("/requests/all"), owner);
+    }
+
+    @Test
+    void getRequest() {
+        assertStatements(3, get("/requests/" + request.getId()), owner);
+    }
+
+    @Test
+    void addComment() {
+        assertStatements(4, post("/items/" + item.getId() + "/comment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"text\":\"nice\"}"), booker);
+    }
+
+    @SneakyThrows
+    private void assertStatements(long budget, MockHttpServletRequestBuilder request, User user) {
+        statistics.clear();
+
+        mockMvc.perform(request.header(CustomHeaders.X_SHARER_USER_ID, user.getId()))
+                .andExpect(status().is2xxSuccessful());
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= budget, "expected at most " + budget + " SQL statements, but was " + statements);
+    }
+}
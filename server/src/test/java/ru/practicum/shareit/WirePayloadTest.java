@@ -0,0 +1,208 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.dto.RequestedItemDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utility.CustomHeaders;
+import ru.practicum.shareit.utility.ItemRequestDtoMapper;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Payload size of the {@code /bookings} and {@code /requests/all} pages against the entity-shaped responses
+ * they used to return, with the owner nested in every item. Serialization time of both shapes is measured by
+ * SerializationBenchmark in the benchmarks module.
+ */
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit-wire-payload")
+class WirePayloadTest {
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void seed() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(new User(null, "payload-owner-" + suffix + "@email.com", "owner"));
+        booker = userRepository.save(new User(null, "payload-booker-" + suffix + "@email.com", "booker"));
+        LocalDateTime origin = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            ItemRequest request = itemRequestRepository.save(new ItemRequest(null, "need a tool " + i,
+                    origin.minusDays(2).plusMinutes(i), booker));
+            Item item = itemRepository.save(new Item(null, "Tool " + i, "a tool offered for request " + i, owner,
+                    true, request.getId()));
+            bookingRepository.save(new Booking(null, origin.plusDays(i), origin.plusDays(i).plusHours(2), item,
+                    booker, BookingStatus.APPROVED));
+        }
+    }
+
+    @Test
+    void bookingsPage_IsSmallerThanEntities() throws Exception {
+        // given
+        List<BookingResponseDto> page = bookingService.getAllBookings(booker.getId(), BookingState.ALL, "bookings",
+                0, PAGE_SIZE);
+        List<LegacyBookingResponse> legacyPage = new TransactionTemplate(transactionManager).execute(status ->
+                entityManager.createQuery("select b from Booking b join fetch b.item i join fetch i.user " +
+                                "join fetch b.booker where b.booker.id = :bookerId order by b.start desc",
+                                Booking.class)
+                        .setParameter("bookerId", booker.getId())
+                        .setMaxResults(PAGE_SIZE)
+                        .getResultList().stream()
+                        .map(b -> new LegacyBookingResponse(b.getId(), b.getStart(), b.getEnd(), b.getItem(),
+                                b.getBooker(), b.getStatus()))
+                        .collect(Collectors.toList()));
+
+        // when
+        byte[] endpoint = mockMvc.perform(get("/bookings")
+                        .header(CustomHeaders.X_SHARER_USER_ID, booker.getId())
+                        .param("size", String.valueOf(PAGE_SIZE)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // then
+        assertEquals(PAGE_SIZE, page.size());
+        assertFalse(new String(endpoint).contains("email"), "booking page exposes emails");
+        compare(endpoint, page, legacyPage);
+    }
+
+    @Test
+    void allRequestsPage_IsSmallerThanEntities() throws Exception {
+        // given
+        List<ItemRequestResponseDto> page = itemRequestService.getAllRequests(owner.getId(), 0, PAGE_SIZE);
+        List<LegacyRequestResponse> legacyPage = new TransactionTemplate(transactionManager).execute(status ->
+                page.stream()
+                        .map(request -> new LegacyRequestResponse(request.getId(), request.getDescription(),
+                                request.getCreated(), entityManager.createQuery("select i from Item i " +
+                                        "join fetch i.user where i.requestId = :requestId", Item.class)
+                                .setParameter("requestId", request.getId())
+                                .getResultList()))
+                        .collect(Collectors.toList()));
+
+        // when
+        byte[] endpoint = mockMvc.perform(get("/requests/all")
+                        .header(CustomHeaders.X_SHARER_USER_ID, owner.getId())
+                        .param("size", String.valueOf(PAGE_SIZE)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // then
+        assertTrue(page.stream().allMatch(request -> request.getItems().size() == 1), "items per request");
+        assertTrue(page.stream().allMatch(request -> request.getItems().get(0).getOwnerId() != null), "owner ids");
+        compare(endpoint, page, legacyPage);
+    }
+
+    @Test
+    void toRequestedItemDto_DoesNotInitializeOwner() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // given
+            entityManager.clear();
+            List<Item> items = itemRepository.findAllByRequestIdIn(itemRequestRepository.findAllByOwnerId(
+                    booker.getId()).stream().map(ItemRequest::getId).collect(Collectors.toList()));
+
+            // when
+            List<Long> ownerIds = items.stream()
+                    .map(ItemRequestDtoMapper::toRequestedItemDto)
+                    .map(RequestedItemDto::getOwnerId)
+                    .collect(Collectors.toList());
+
+            // then
+            assertEquals(PAGE_SIZE, ownerIds.size());
+            assertTrue(ownerIds.stream().allMatch(owner.getId()::equals));
+            assertTrue(items.stream().noneMatch(item -> Hibernate.isInitialized(item.getUser())),
+                    "owner proxies initialized");
+        });
+    }
+
+    private void compare(byte[] payload, Object page, Object legacyPage) throws Exception {
+        byte[] legacyPayload = objectMapper.writeValueAsBytes(legacyPage);
+        assertEquals(objectMapper.writeValueAsBytes(page).length, payload.length);
+        assertTrue(payload.length < legacyPayload.length,
+                "dto " + payload.length + " bytes, entities " + legacyPayload.length + " bytes");
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class LegacyBookingResponse {
+        private final Long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final Item item;
+        private final User booker;
+        private final BookingStatus status;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class LegacyRequestResponse {
+        private final Long id;
+        private final String description;
+        private final LocalDateTime created;
+        private final List<Item> items;
+    }
+}
@@ -10,14 +10,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.NotFoundException;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.user.dto.UserShortDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,6 +27,7 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -75,6 +78,33 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.booker").value(bookingResponseDto.getBooker()));
     }
 
+    @SneakyThrows
+    @Test
+    void addBookings_isValid_ReturnsResultPerEntry() {
+        // given
+        BookingRequestDto bookingRequestDto = getBookingRequestDto();
+        BookingResponseDto bookingResponseDto = getBookingResponseDto();
+        List<BookingRequestDto> requestDtos = List.of(bookingRequestDto, bookingRequestDto);
+
+        // when
+        when(bookingService.addBookings(1L, requestDtos)).thenReturn(List.of(
+                new BookingBatchResultDto(0, 201, bookingResponseDto, null),
+                new BookingBatchResultDto(1, 400, null, "Item with id = 1 is already booked for this period")));
+
+        // then
+        mockMvc.perform(
+                        post("/bookings/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("X-Sharer-User-Id", 1)
+                                .content(objectMapper.writeValueAsString(requestDtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].booking.id").value(bookingResponseDto.getId()))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].error").value("Item with id = 1 is already booked for this period"));
+    }
+
     @SneakyThrows
     @Test
     void handleBooking_isValid_ReturnsBookingResponseDto() {
@@ -84,7 +114,7 @@ class BookingControllerTest {
         long bookingId = 1L;
 
         // when
-        when(bookingService.handleBooking(any(Long.class), any(Long.class), any(Boolean.class)))
+        when(bookingService.handleBooking(any(Long.class), any(Long.class), any(Boolean.class), eq("approve-1")))
                 .thenReturn(bookingResponseDto);
 
         // then
@@ -92,6 +122,7 @@ class BookingControllerTest {
                         patch("/bookings/{bookingId}", bookingId)
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .header("X-Sharer-User-Id", 1)
+                                .header("Idempotency-Key", "approve-1")
                                 .param("approved", String.valueOf(true)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").isNotEmpty())
@@ -168,6 +199,28 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].booker").value(bookingResponseDto.getBooker()));
     }
 
+    @SneakyThrows
+    @Test
+    void getAllBookingsForUser_withCursor_ReturnsNextCursorHeader() {
+        //given
+        BookingResponseDto bookingResponseDto = getBookingResponseDto();
+        BookingPageDto page = new BookingPageDto(List.of(bookingResponseDto), "next-token");
+
+        // when
+        when(bookingService.getAllBookingsByCursor(1L, BookingState.ALL, "bookings", "", 10))
+                .thenReturn(page);
+
+        // then
+        mockMvc.perform(
+                        get("/bookings")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("X-Sharer-User-Id", 1)
+                                .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next-token"))
+                .andExpect(jsonPath("$[0].id").value(bookingResponseDto.getId()));
+    }
+
     @SneakyThrows
     @Test
     void getAllBookingsForUser_unknownBookingState_ThrowsUnknownBookingStateException() {
@@ -210,16 +263,8 @@ class BookingControllerTest {
         bookingResponseDto.setId(1L);
         bookingResponseDto.setStart(start);
         bookingResponseDto.setEnd(end);
-        Item item = new Item();
-        item.setId(1L);
-        item.setName("test item");
-        item.setDescription("test item description");
-        bookingResponseDto.setItem(item);
-        User booker = new User();
-        booker.setId(1L);
-        booker.setName("test user");
-        booker.setEmail("test@test.com");
-        bookingResponseDto.setBooker(booker);
+        bookingResponseDto.setItem(new ItemShortDto(1L, "test item"));
+        bookingResponseDto.setBooker(new UserShortDto(1L, "test user"));
         bookingResponseDto.setStatus(BookingStatus.WAITING);
         return bookingResponseDto;
     }
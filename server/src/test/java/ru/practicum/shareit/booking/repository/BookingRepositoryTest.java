@@ -0,0 +1,168 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class BookingRepositoryTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void findLastAndNextApprovedByItemIds() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        User owner = userRepository.save(new User(null, "owner@email.com", "owner"));
+        User booker = userRepository.save(new User(null, "booker@email.com", "booker"));
+        Item item1 = itemRepository.save(new Item(null, "item1", "description1", owner, true, null));
+        Item item2 = itemRepository.save(new Item(null, "item2", "description2", owner, true, null));
+        Item item3 = itemRepository.save(new Item(null, "item3", "description3", owner, true, null));
+
+        save(item1, booker, now.minusDays(10), now.minusDays(9), BookingStatus.APPROVED);
+        Booking last1 = save(item1, booker, now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED);
+        save(item1, booker, now.minusDays(2), now.minusDays(1), BookingStatus.REJECTED);
+        save(item1, booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        Booking next1 = save(item1, booker, now.plusDays(3), now.plusDays(4), BookingStatus.APPROVED);
+        save(item1, booker, now.plusDays(5), now.plusDays(6), BookingStatus.APPROVED);
+        Booking next2 = save(item2, booker, now.plusHours(1), now.plusHours(2), BookingStatus.APPROVED);
+        save(item3, booker, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);
+
+        // when
+        List<Booking> bookings = bookingRepository.findLastAndNextApprovedByItemIds(
+                List.of(item1.getId(), item2.getId()), now);
+
+        // then
+        Set<Long> ids = bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of(last1.getId(), next1.getId(), next2.getId()), ids);
+    }
+
+    @Test
+    void findPageAfter_WalksBookerBookingsByStartAndIdDescending() {
+        // given
+        LocalDateTime start = LocalDateTime.now().minusDays(1).withNano(0);
+        User owner = userRepository.save(new User(null, "keyset-owner@email.com", "owner"));
+        User booker = userRepository.save(new User(null, "keyset-booker@email.com", "booker"));
+        Item item = itemRepository.save(new Item(null, "item", "description", owner, true, null));
+        Booking first = save(item, booker, start.plusDays(2), start.plusDays(3), BookingStatus.APPROVED);
+        Booking sameStartLowerId = save(item, booker, start.plusDays(1), start.plusDays(2), BookingStatus.WAITING);
+        Booking sameStartHigherId = save(item, booker, start.plusDays(1), start.plusDays(3), BookingStatus.APPROVED);
+        Booking last = save(item, booker, start, start.plusDays(1), BookingStatus.REJECTED);
+        save(item, owner, start.plusDays(4), start.plusDays(5), BookingStatus.APPROVED);
+        Specification<Booking> spec = BookingSpecifications.bookerIs(booker.getId());
+
+        // when
+        List<BookingView> firstPage = bookingRepository.findPageAfter(spec, null, null, 2);
+        BookingView lastOfFirst = firstPage.get(firstPage.size() - 1);
+        List<BookingView> secondPage =
+                bookingRepository.findPageAfter(spec, lastOfFirst.getStart(), lastOfFirst.getId(), 2);
+        BookingView lastOfSecond = secondPage.get(secondPage.size() - 1);
+        List<BookingView> thirdPage =
+                bookingRepository.findPageAfter(spec, lastOfSecond.getStart(), lastOfSecond.getId(), 2);
+
+        // then
+        assertEquals(List.of(first.getId(), sameStartHigherId.getId()), ids(firstPage));
+        assertEquals(List.of(sameStartLowerId.getId(), last.getId()), ids(secondPage));
+        assertEquals(List.of(), ids(thirdPage));
+    }
+
+    @Test
+    void findViews_FilterBookerAndOwnerBookingsByState() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        User owner = userRepository.save(new User(null, "views-owner@email.com", "owner"));
+        User booker = userRepository.save(new User(null, "views-booker@email.com", "booker"));
+        Item item = itemRepository.save(new Item(null, "item", "description", owner, true, 7L));
+        Booking past = save(item, booker, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        Booking current = save(item, booker, now.minusDays(1), now.plusDays(1), BookingStatus.APPROVED);
+        Booking waiting = save(item, booker, now.plusDays(2), now.plusDays(3), BookingStatus.WAITING);
+        Booking rejected = save(item, booker, now.plusDays(4), now.plusDays(5), BookingStatus.REJECTED);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"));
+
+        // then
+        assertEquals(List.of(rejected.getId(), waiting.getId(), current.getId(), past.getId()),
+                ids(bookingRepository.findViewsByBookerId(booker.getId(), pageable)));
+        assertEquals(List.of(current.getId()),
+                ids(bookingRepository.findViewsByBookerIdAndStartBeforeAndEndAfter(booker.getId(), now, now,
+                        pageable)));
+        assertEquals(List.of(past.getId()),
+                ids(bookingRepository.findViewsByBookerIdAndEndBefore(booker.getId(), now, pageable)));
+        assertEquals(List.of(rejected.getId(), waiting.getId()),
+                ids(bookingRepository.findViewsByBookerIdAndStartAfter(booker.getId(), now, pageable)));
+        assertEquals(List.of(waiting.getId()),
+                ids(bookingRepository.findViewsByBookerIdAndStatus(booker.getId(), BookingStatus.WAITING, pageable)));
+        assertEquals(List.of(current.getId()),
+                ids(bookingRepository.findViewsByOwnerIdAndStartBeforeAndEndAfter(owner.getId(), now, now,
+                        pageable)));
+        assertEquals(List.of(past.getId()),
+                ids(bookingRepository.findViewsByOwnerIdAndEndBefore(owner.getId(), now, pageable)));
+        assertEquals(List.of(rejected.getId(), waiting.getId()),
+                ids(bookingRepository.findViewsByOwnerIdAndStartAfter(owner.getId(), now, pageable)));
+        assertEquals(List.of(rejected.getId()),
+                ids(bookingRepository.findViewsByOwnerIdAndStatus(owner.getId(), BookingStatus.REJECTED, pageable)));
+        assertEquals(List.of(current.getId(), past.getId()),
+                ids(bookingRepository.findViewsByOwnerId(owner.getId(),
+                        PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "start")))));
+        assertEquals(List.of(), ids(bookingRepository.findViewsByBookerId(owner.getId(), pageable)));
+    }
+
+    @Test
+    void findViews_SelectsEveryColumnOfTheResponse() {
+        // given
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        User owner = userRepository.save(new User(null, "view-owner@email.com", "owner"));
+        User booker = userRepository.save(new User(null, "view-booker@email.com", "booker"));
+        Item item = itemRepository.save(new Item(null, "item", "description", owner, true, 7L));
+        Booking booking = save(item, booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+
+        // when
+        BookingView view = bookingRepository.findViewsByBookerId(booker.getId(), PageRequest.of(0, 10)).get(0);
+
+        // then
+        assertEquals(booking.getId(), view.getId());
+        assertEquals(booking.getStart(), view.getStart());
+        assertEquals(booking.getEnd(), view.getEnd());
+        assertEquals(BookingStatus.WAITING, view.getStatus());
+        assertEquals(item.getId(), view.getItemId());
+        assertEquals("item", view.getItemName());
+        assertEquals(booker.getId(), view.getBookerId());
+        assertEquals("booker", view.getBookerName());
+    }
+
+    private List<Long> ids(List<BookingView> bookings) {
+        return bookings.stream()
+                .map(BookingView::getId)
+                .collect(Collectors.toList());
+    }
+
+    private Booking save(Item item, User booker, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return bookingRepository.save(new Booking(null, start, end, item, booker, status));
+    }
+}
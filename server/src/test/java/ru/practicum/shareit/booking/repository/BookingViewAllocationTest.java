@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utility.BookingDtoMapper;
+
+import javax.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Compares heap allocated per listing page by the projection query against fetch-joining and mapping
+ * the entities the listing used to read. Runs only on request, e.g.
+ * SHAREIT_BENCHMARKS=true mvn -pl server test -Dtest=BookingViewAllocationTest
+ */
+@DataJpaTest
+@EnabledIfEnvironmentVariable(named = "SHAREIT_BENCHMARKS", matches = "true")
+class BookingViewAllocationTest {
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int ROUNDS = 500;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findViews_AllocatesLessPerPageThanEntities() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        User owner = userRepository.save(new User(null, "allocation-owner@email.com", "owner"));
+        User booker = userRepository.save(new User(null, "allocation-booker@email.com", "booker"));
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Item item = itemRepository.save(new Item(null, "item " + i, "description " + i, owner, true, null));
+            bookingRepository.save(new Booking(null, now.plusDays(i), now.plusDays(i + 1), item, booker,
+                    BookingStatus.APPROVED));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "start"));
+
+        Supplier<List<BookingResponseDto>> viewPage = () -> bookingRepository
+                .findViewsByBookerId(booker.getId(), pageable).stream()
+                .map(BookingDtoMapper::toDto)
+                .collect(Collectors.toList());
+        Supplier<List<BookingResponseDto>> entityPage = () -> entityManager
+                .createQuery("select b from Booking b join fetch b.item i join fetch i.user join fetch b.booker " +
+                        "where b.booker.id = :bookerId order by b.start desc", Booking.class)
+                .setParameter("bookerId", booker.getId())
+                .setMaxResults(PAGE_SIZE)
+                .getResultList().stream()
+                .map(BookingDtoMapper::toDto)
+                .collect(Collectors.toList());
+
+        // when
+        assertEquals(entityPage.get(), viewPage.get());
+        long viewBytes = allocatedBytesPerPage(viewPage);
+        long entityBytes = allocatedBytesPerPage(entityPage);
+
+        // then
+        assertTrue(viewBytes < entityBytes, "projection " + viewBytes + " bytes, entities " + entityBytes + " bytes");
+    }
+
+    private long allocatedBytesPerPage(Supplier<List<BookingResponseDto>> page) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            page.get();
+            entityManager.clear();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ROUNDS; i++) {
+            page.get();
+            entityManager.clear();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / ROUNDS;
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-calendar",
+        "shareit.availability.calendar.enabled=true",
+        "shareit.search.index.enabled=true"
+})
+class AvailabilityCalendarIntegrationTest {
+    private static final int ITEMS = 6;
+    private static final int BOOKINGS = 120;
+    private static final int SLOTS = 240;
+
+    @Autowired
+    private AvailabilityCalendar availabilityCalendar;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Random random = new Random(11);
+    private List<Long> itemIds;
+    private LocalDateTime origin;
+
+    @BeforeEach
+    void seed() {
+        String suffix = String.valueOf(System.nanoTime());
+        User owner = userRepository.save(new User(null, "calendar-owner-" + suffix + "@email.com", "owner"));
+        User booker = userRepository.save(new User(null, "calendar-booker-" + suffix + "@email.com", "booker"));
+        origin = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemService.addItem(owner.getId(),
+                    new ItemRequestDto("Calendar item " + suffix, "description", true, null)).getId());
+        }
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = origin.plusHours(random.nextInt(SLOTS));
+            try {
+                BookingResponseDto booking = bookingService.addBooking(booker.getId(), new BookingRequestDto(null,
+                        start, start.plusHours(1 + random.nextInt(12)), itemIds.get(i % ITEMS), null,
+                        BookingStatus.WAITING));
+                if (i % 3 != 0) {
+                    bookingService.handleBooking(owner.getId(), booking.getId(), i % 3 == 1, null);
+                }
+            } catch (BadRequestException e) {
+                // the period is already reserved
+            }
+        }
+    }
+
+    @Test
+    void isReserved_MatchesDatabase() {
+        assertCalendarMatchesDatabase();
+    }
+
+    @Test
+    void isReserved_AfterRebuild_MatchesDatabase() {
+        // when
+        availabilityCalendar.rebuild();
+
+        // then
+        assertCalendarMatchesDatabase();
+    }
+
+    @Test
+    void isReserved_PeriodBeforeCalendar_AsksDatabase() {
+        assertFalse(availabilityCalendar.isReserved(itemIds.get(0), LocalDateTime.now().minusDays(1),
+                origin).isPresent());
+    }
+
+    @Test
+    void searchAvailableItemFreeBetween_MatchesRepositoryResults() {
+        for (int i = 0; i < 50; i++) {
+            // given
+            LocalDateTime freeFrom = origin.plusHours(random.nextInt(SLOTS));
+            LocalDateTime freeTo = freeFrom.plusHours(1 + random.nextInt(48));
+
+            // when
+            List<Long> found = itemService.searchAvailableItemFreeBetween("calendar item", freeFrom, freeTo, 0, ITEMS)
+                    .stream()
+                    .map(ItemResponseDto::getId)
+                    .collect(Collectors.toList());
+
+            // then
+            List<Long> expected = itemRepository.searchAvailableItemFreeBetween("calendar item", freeFrom, freeTo,
+                            BookingStatus.RESERVING, PageRequest.of(0, ITEMS)).stream()
+                    .map(Item::getId)
+                    .filter(itemIds::contains)
+                    .collect(Collectors.toList());
+            assertThat(freeFrom + " - " + freeTo, found.stream().filter(itemIds::contains)
+                    .collect(Collectors.toList()), equalTo(expected));
+        }
+    }
+
+    private void assertCalendarMatchesDatabase() {
+        assertTrue(availabilityCalendar.isReady());
+        for (int i = 0; i < 500; i++) {
+            Long itemId = itemIds.get(random.nextInt(ITEMS));
+            LocalDateTime from = origin.plusHours(random.nextInt(SLOTS)).plusMinutes(random.nextInt(60));
+            LocalDateTime to = from.plusMinutes(1 + random.nextInt(24 * 60));
+
+            boolean reserved = availabilityCalendar.isReserved(itemId, from, to).orElseThrow();
+
+            assertThat(itemId + ": " + from + " - " + to, reserved,
+                    equalTo(bookingRepository.existsOverlapping(itemId, from, to, BookingStatus.RESERVING)));
+        }
+    }
+}
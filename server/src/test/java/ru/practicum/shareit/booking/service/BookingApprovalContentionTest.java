@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contention on a single hot booking: every round, concurrent owners' clicks and gateway retries race to
+ * decide the same booking, and exactly one decision must win.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit-approvals;LOCK_TIMEOUT=10000")
+class BookingApprovalContentionTest {
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+    private static final int KEYS = 4;
+    private static final int RETRIES_PER_KEY = 4;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void seed() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(new User(null, "approval-owner-" + suffix + "@email.com", "owner"));
+        booker = userRepository.save(new User(null, "approval-booker-" + suffix + "@email.com", "booker"));
+        item = itemRepository.save(new Item(null, "hot item", "description", owner, true, null));
+    }
+
+    @Test
+    void handleBooking_ConcurrentRetriesOfOneDecision_ApplyItOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                // given
+                Booking booking = bookingRepository.save(new Booking(null, start.plusDays(round),
+                        start.plusDays(round).plusHours(1), item, booker, BookingStatus.WAITING));
+                Set<String> succeededKeys = ConcurrentHashMap.newKeySet();
+                AtomicInteger succeeded = new AtomicInteger();
+                AtomicInteger alreadyApproved = new AtomicInteger();
+                CountDownLatch go = new CountDownLatch(1);
+
+                // when
+                List<Future<?>> futures = new ArrayList<>();
+                for (int key = 0; key < KEYS; key++) {
+                    String idempotencyKey = "round-" + round + "-key-" + key;
+                    for (int retry = 0; retry < RETRIES_PER_KEY; retry++) {
+                        futures.add(executor.submit(() -> {
+                            go.await();
+                            try {
+                                BookingResponseDto response = bookingService.handleBooking(owner.getId(),
+                                        booking.getId(), true, idempotencyKey);
+                                assertEquals(BookingStatus.APPROVED, response.getStatus());
+                                succeededKeys.add(idempotencyKey);
+                                succeeded.incrementAndGet();
+                            } catch (BadRequestException e) {
+                                alreadyApproved.incrementAndGet();
+                            }
+                            return null;
+                        }));
+                    }
+                }
+                go.countDown();
+                for (Future<?> future : futures) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+
+                // then
+                Booking decided = bookingRepository.findById(booking.getId()).orElseThrow();
+                assertEquals(BookingStatus.APPROVED, decided.getStatus());
+                assertEquals(1L, decided.getVersion());
+                assertEquals(1, succeededKeys.size());
+                assertEquals(Set.of(decided.getStatusKey()), succeededKeys);
+                assertEquals(RETRIES_PER_KEY, succeeded.get());
+                assertEquals((KEYS - 1) * RETRIES_PER_KEY, alreadyApproved.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
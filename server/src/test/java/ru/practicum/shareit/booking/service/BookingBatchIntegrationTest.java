@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-batch",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BookingBatchIntegrationTest {
+    private static final int ITEMS = 20;
+    private static final int BOOKINGS_PER_ITEM = 20;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User booker;
+    private List<Item> items;
+    private LocalDateTime origin;
+
+    @BeforeEach
+    void seed() {
+        String suffix = String.valueOf(System.nanoTime());
+        User owner = userRepository.save(new User(null, "batch-owner-" + suffix + "@email.com", "owner"));
+        booker = userRepository.save(new User(null, "batch-booker-" + suffix + "@email.com", "booker"));
+        items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(new Item(null, "batch item " + i, "description", owner, true, null)));
+        }
+        origin = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void addBookings_ValidEntries_InsertsThemInJdbcBatches() {
+        // given
+        List<BookingRequestDto> requestDtos = new ArrayList<>();
+        for (int i = 0; i < ITEMS * BOOKINGS_PER_ITEM; i++) {
+            LocalDateTime start = origin.plusHours(2L * (i / ITEMS));
+            requestDtos.add(new BookingRequestDto(null, start, start.plusHours(1), items.get(i % ITEMS).getId(),
+                    null, BookingStatus.WAITING));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // when
+        List<BookingBatchResultDto> results = bookingService.addBookings(booker.getId(), requestDtos);
+
+        // then
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == 201));
+        Set<Long> ids = results.stream().map(result -> result.getBooking().getId()).collect(Collectors.toSet());
+        assertEquals(requestDtos.size(), ids.size());
+        assertEquals(requestDtos.size(), bookingRepository.findAllById(ids).size());
+        assertEquals(requestDtos.size(), statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 30,
+                "expected batched inserts, prepared " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    void addBookings_OverlappingEntries_CreatesOnlyFreePeriods() {
+        // given
+        Item item = items.get(0);
+        bookingService.addBooking(booker.getId(), new BookingRequestDto(null, origin, origin.plusHours(2),
+                item.getId(), null, BookingStatus.WAITING));
+        List<BookingRequestDto> requestDtos = List.of(
+                new BookingRequestDto(null, origin.plusHours(1), origin.plusHours(3), item.getId(), null,
+                        BookingStatus.WAITING),
+                new BookingRequestDto(null, origin.plusHours(2), origin.plusHours(4), item.getId(), null,
+                        BookingStatus.WAITING),
+                new BookingRequestDto(null, origin.plusHours(3), origin.plusHours(5), item.getId(), null,
+                        BookingStatus.WAITING),
+                new BookingRequestDto(null, origin.plusHours(4), origin.plusHours(5), item.getId(), null,
+                        BookingStatus.WAITING));
+
+        // when
+        List<BookingBatchResultDto> results = bookingService.addBookings(booker.getId(), requestDtos);
+
+        // then
+        assertEquals(List.of(400, 201, 400, 201),
+                results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()));
+        assertEquals(3, bookingRepository.findAllByItemIdOrderByEndDesc(item.getId()).size());
+    }
+}
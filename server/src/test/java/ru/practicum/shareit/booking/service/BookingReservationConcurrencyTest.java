@@ -0,0 +1,234 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit-reservations;LOCK_TIMEOUT=10000")
+class BookingReservationConcurrencyTest {
+    private static final int THREADS = 32;
+    private static final int BOOKINGS = 2_000;
+    private static final int SLOTS = 200;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private List<User> bookers;
+    private Item hotItem;
+    private Item otherItem;
+    private LocalDateTime origin;
+
+    @BeforeEach
+    void seed() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(new User(null, "reservation-owner-" + suffix + "@email.com", "owner"));
+        bookers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            bookers.add(userRepository.save(new User(null, "reservation-booker-" + i + "-" + suffix + "@email.com",
+                    "booker")));
+        }
+        hotItem = itemRepository.save(new Item(null, "hot item", "description", owner, true, null));
+        otherItem = itemRepository.save(new Item(null, "other item", "description", owner, true, null));
+        origin = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void addBooking_ParallelRequestsForOneItem_NeverReserveOverlappingPeriods() throws Exception {
+        // given
+        Random random = new Random(42);
+        List<BookingRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = origin.plusHours(random.nextInt(SLOTS));
+            requests.add(new BookingRequestDto(null, start, start.plusHours(1 + random.nextInt(3)), hotItem.getId(),
+                    null, BookingStatus.WAITING));
+        }
+        AtomicInteger rejected = new AtomicInteger();
+
+        // when
+        List<BookingResponseDto> created = runInParallel(requests.size(), i -> {
+            try {
+                return bookingService.addBooking(bookers.get(i % bookers.size()).getId(), requests.get(i));
+            } catch (BadRequestException e) {
+                rejected.incrementAndGet();
+                return null;
+            }
+        });
+
+        // then
+        List<Booking> reserved = reservedBookings(hotItem, EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED));
+        assertEquals(created.size(), reserved.size());
+        assertEquals(BOOKINGS, created.size() + rejected.get());
+        assertTrue(rejected.get() > 0);
+        assertNoOverlaps(reserved);
+    }
+
+    @Test
+    void handleBooking_ParallelApprovalsOfOverlappingBookings_ApproveOnlyFreePeriods() throws Exception {
+        // given
+        Random random = new Random(7);
+        List<Booking> candidates = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS / 4; i++) {
+            LocalDateTime start = origin.plusHours(random.nextInt(SLOTS / 4));
+            candidates.add(bookingRepository.save(new Booking(null, start, start.plusHours(1 + random.nextInt(3)),
+                    hotItem, bookers.get(i % bookers.size()), BookingStatus.REJECTED)));
+        }
+        AtomicInteger conflicts = new AtomicInteger();
+
+        // when
+        List<BookingResponseDto> approved = runInParallel(candidates.size(), i -> {
+            try {
+                return bookingService.handleBooking(owner.getId(), candidates.get(i).getId(), true, null);
+            } catch (BadRequestException e) {
+                conflicts.incrementAndGet();
+                return null;
+            }
+        });
+
+        // then
+        List<Booking> approvedBookings = reservedBookings(hotItem, EnumSet.of(BookingStatus.APPROVED));
+        assertEquals(approved.size(), approvedBookings.size());
+        assertTrue(conflicts.get() > 0);
+        assertNoOverlaps(approvedBookings);
+    }
+
+    @Test
+    void addBooking_ItemLocked_DoesNotBlockOtherItems() throws Exception {
+        // given
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> lockHolder = executor.submit(() -> transaction.executeWithoutResult(status -> {
+                itemRepository.findByIdForUpdate(hotItem.getId());
+                locked.countDown();
+                awaitQuietly(release);
+            }));
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+            // when
+            Future<BookingResponseDto> hotBooking = executor.submit(() -> bookingService.addBooking(
+                    bookers.get(0).getId(), bookingRequest(hotItem, origin)));
+            Future<BookingResponseDto> otherBooking = executor.submit(() -> bookingService.addBooking(
+                    bookers.get(1).getId(), bookingRequest(otherItem, origin)));
+
+            // then
+            assertEquals(BookingStatus.WAITING, otherBooking.get(5, TimeUnit.SECONDS).getStatus());
+            assertThrows(TimeoutException.class, () -> hotBooking.get(300, TimeUnit.MILLISECONDS));
+            assertFalse(hotBooking.isDone());
+
+            release.countDown();
+            lockHolder.get(10, TimeUnit.SECONDS);
+            assertEquals(BookingStatus.WAITING, hotBooking.get(10, TimeUnit.SECONDS).getStatus());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> List<T> runInParallel(int tasks, IndexedTask<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.run(index);
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                T result = future.get(60, TimeUnit.SECONDS);
+                if (result != null) {
+                    results.add(result);
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Booking> reservedBookings(Item item, EnumSet<BookingStatus> statuses) {
+        return bookingRepository.findAllByItemIdOrderByEndDesc(item.getId()).stream()
+                .filter(b -> statuses.contains(b.getStatus()))
+                .sorted(Comparator.comparing(Booking::getStart))
+                .collect(Collectors.toList());
+    }
+
+    private static void assertNoOverlaps(List<Booking> byStart) {
+        for (int i = 1; i < byStart.size(); i++) {
+            Booking previous = byStart.get(i - 1);
+            Booking current = byStart.get(i);
+            assertFalse(current.getStart().isBefore(previous.getEnd()),
+                    "booking " + current.getId() + " overlaps booking " + previous.getId());
+        }
+    }
+
+    private static BookingRequestDto bookingRequest(Item item, LocalDateTime start) {
+        return new BookingRequestDto(null, start, start.plusHours(1), item.getId(), null, BookingStatus.WAITING);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private interface IndexedTask<T> {
+        T run(int index);
+    }
+}
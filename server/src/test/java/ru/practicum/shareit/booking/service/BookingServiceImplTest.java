@@ -6,27 +6,46 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPeriod;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserShortDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserValidator;
+import ru.practicum.shareit.utility.BookingCursor;
+import ru.practicum.shareit.utility.ItemDtoMapper;
+import ru.practicum.shareit.utility.UserDtoMapper;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,9 +58,15 @@ class BookingServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserValidator userValidator;
+
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private AvailabilityCalendar availabilityCalendar;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -56,7 +81,7 @@ class BookingServiceImplTest {
         Item item = new Item();
         item.setUser(new User(2L, "email", "name"));
         item.setAvailable(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item));
 
         User user = new User();
         user.setId(1L);
@@ -72,11 +97,79 @@ class BookingServiceImplTest {
         assertEquals(requestDto.getStart(), bookingResponseDto.getStart());
         assertEquals(requestDto.getEnd(), bookingResponseDto.getEnd());
         assertEquals(BookingStatus.WAITING, bookingResponseDto.getStatus());
-        assertEquals(item, bookingResponseDto.getItem());
-        assertEquals(user, bookingResponseDto.getBooker());
+        assertEquals(new ItemShortDto(item.getId(), item.getName()), bookingResponseDto.getItem());
+        assertEquals(new UserShortDto(user.getId(), user.getName()), bookingResponseDto.getBooker());
         verify(bookingRepository).save(any(Booking.class));
     }
 
+    @Test
+    void addBookings_MixedEntries_ReportsResultPerEntry() {
+        // given
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        User booker = new User(1L, "booker@email.com", "booker");
+        User owner = new User(2L, "owner@email.com", "owner");
+        Item item = new Item(10L, "item", "description", owner, true, null);
+        Item ownItem = new Item(11L, "own", "description", booker, true, null);
+        Item unavailableItem = new Item(12L, "unavailable", "description", owner, false, null);
+        List<BookingRequestDto> requestDtos = Arrays.asList(
+                new BookingRequestDto(null, start, start.plusHours(1), 10L, null, BookingStatus.WAITING),
+                new BookingRequestDto(null, start.plusMinutes(30), start.plusHours(2), 10L, null, BookingStatus.WAITING),
+                new BookingRequestDto(null, start.plusHours(5), start.plusHours(6), 10L, null, BookingStatus.WAITING),
+                new BookingRequestDto(null, start, start.plusHours(1), 11L, null, BookingStatus.WAITING),
+                new BookingRequestDto(null, start, start.plusHours(1), 12L, null, BookingStatus.WAITING),
+                new BookingRequestDto(null, start, start.plusHours(1), 99L, null, BookingStatus.WAITING),
+                new BookingRequestDto(null, start.plusHours(1), start, 10L, null, BookingStatus.WAITING),
+                null);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllByIdInForUpdate(new TreeSet<>(List.of(10L, 11L, 12L, 99L))))
+                .thenReturn(List.of(item, ownItem, unavailableItem));
+        when(bookingRepository.findPeriodsOverlapping(eq(Set.of(10L, 11L, 12L)), eq(start),
+                eq(start.plusHours(6)), eq(BookingStatus.RESERVING)))
+                .thenReturn(List.of(period(5L, 10L, start.plusHours(4), start.plusHours(5).plusMinutes(30))));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            bookings.forEach(booking -> booking.setId(100L + booking.getStart().getHour()));
+            return bookings;
+        });
+
+        // when
+        List<BookingBatchResultDto> results = bookingService.addBookings(1L, requestDtos);
+
+        // then
+        assertEquals(List.of(201, 400, 400, 404, 400, 404, 400, 400),
+                results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()));
+        assertEquals(start, results.get(0).getBooking().getStart());
+        assertEquals(BookingStatus.WAITING, results.get(0).getBooking().getStatus());
+        assertEquals("Item with id = 10 is already booked for this period", results.get(1).getError());
+        assertEquals("Item with id = 10 is already booked for this period", results.get(2).getError());
+        assertEquals("Unable to book your item", results.get(3).getError());
+        assertEquals("Item with id = 99 not found", results.get(5).getError());
+        assertEquals(7, results.get(7).getIndex());
+        verify(availabilityCalendar).update(any(Booking.class));
+    }
+
+    @Test
+    void addBookings_TooManyEntries_ThrowsBadRequestException() {
+        // given
+        List<BookingRequestDto> requestDtos = Collections.nCopies(501, new BookingRequestDto());
+
+        // then
+        assertThrows(BadRequestException.class, () -> bookingService.addBookings(1L, requestDtos));
+        verify(bookingRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void addBookings_BookerNotFound_ThrowsNotFoundException() {
+        // given
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(NotFoundException.class,
+                () -> bookingService.addBookings(1L, List.of(new BookingRequestDto())));
+        verify(bookingRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void addBooking_StartTimeEqualEndTime_ThrowsBadRequestException() {
         // given
@@ -113,7 +206,7 @@ class BookingServiceImplTest {
         Item item = new Item();
         item.setUser(new User(1L, "email", "name"));
         item.setAvailable(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item));
 
         User user = new User();
         user.setId(1L);
@@ -135,15 +228,43 @@ class BookingServiceImplTest {
         Item item = new Item();
         item.setUser(new User(2L, "email", "name"));
         item.setAvailable(false);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item));
+
+        User user = new User();
+        user.setId(1L);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+
+        // then
+        assertThrows(BadRequestException.class,
+                () -> bookingService.addBooking(1L, requestDto));
+    }
+
+    @Test
+    void addBooking_PeriodAlreadyReserved_ThrowsBadRequestException() {
+        // given
+        LocalDateTime start = LocalDateTime.now();
+        LocalDateTime end = LocalDateTime.now().plusHours(1);
+        BookingRequestDto requestDto = new BookingRequestDto(1L, start, end, 1L, 1L,
+                BookingStatus.WAITING);
+
+        Item item = new Item();
+        item.setId(1L);
+        item.setUser(new User(2L, "email", "name"));
+        item.setAvailable(true);
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.of(item));
 
         User user = new User();
         user.setId(1L);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
+        when(bookingRepository.existsOverlapping(1L, start, end,
+                EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED))).thenReturn(true);
+
         // then
         assertThrows(BadRequestException.class,
                 () -> bookingService.addBooking(1L, requestDto));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(availabilityCalendar, never()).isReserved(anyLong(), any(), any());
     }
 
     @Test
@@ -161,21 +282,49 @@ class BookingServiceImplTest {
 
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(itemRepository.findByIdForUpdate(any())).thenReturn(Optional.of(item));
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         // when
         BookingResponseDto bookingResponseDto = bookingService.handleBooking(user.getId(), booking.getId(),
-                true);
+                true, null);
 
         // then
         assertEquals(BookingStatus.APPROVED, bookingResponseDto.getStatus());
         assertEquals(start, bookingResponseDto.getStart());
         assertEquals(end, bookingResponseDto.getEnd());
-        assertEquals(item, bookingResponseDto.getItem());
-        assertEquals(user, bookingResponseDto.getBooker());
+        assertEquals(new ItemShortDto(item.getId(), item.getName()), bookingResponseDto.getItem());
+        assertEquals(new UserShortDto(user.getId(), user.getName()), bookingResponseDto.getBooker());
         verify(bookingRepository).save(any(Booking.class));
     }
 
+    @Test
+    void handleBooking_approvalOverlapsApprovedBooking_ThrowsBadRequestException() {
+        // given
+        LocalDateTime start = LocalDateTime.now();
+        LocalDateTime end = LocalDateTime.now().plusHours(1);
+
+        Item item = new Item();
+        item.setId(1L);
+        item.setUser(new User(1L, "email", "name"));
+        item.setAvailable(true);
+
+        User user = new User();
+        user.setId(2L);
+
+        Booking booking = new Booking(1L, start, end, item, user, BookingStatus.REJECTED);
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(itemRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.existsOtherOverlapping(1L, 1L, start, end, EnumSet.of(BookingStatus.APPROVED)))
+                .thenReturn(true);
+
+        // then
+        assertThrows(BadRequestException.class,
+                () -> bookingService.handleBooking(1L, booking.getId(), true, null));
+        assertEquals(BookingStatus.REJECTED, booking.getStatus());
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
     @Test
     void handleBooking_approvedFalse_ReturnsBookingResponseDto() {
         // given
@@ -195,14 +344,14 @@ class BookingServiceImplTest {
 
         // when
         BookingResponseDto bookingResponseDto = bookingService.handleBooking(user.getId(), booking.getId(),
-                false);
+                false, null);
 
         // then
         assertEquals(BookingStatus.REJECTED, bookingResponseDto.getStatus());
         assertEquals(start, bookingResponseDto.getStart());
         assertEquals(end, bookingResponseDto.getEnd());
-        assertEquals(item, bookingResponseDto.getItem());
-        assertEquals(user, bookingResponseDto.getBooker());
+        assertEquals(new ItemShortDto(item.getId(), item.getName()), bookingResponseDto.getItem());
+        assertEquals(new UserShortDto(user.getId(), user.getName()), bookingResponseDto.getBooker());
         verify(bookingRepository).save(any(Booking.class));
     }
 
@@ -224,7 +373,7 @@ class BookingServiceImplTest {
 
         // then
         assertThrows(NotFoundException.class,
-                () -> bookingService.handleBooking(user.getId(), booking.getId(), true));
+                () -> bookingService.handleBooking(user.getId(), booking.getId(), true, null));
     }
 
     @Test
@@ -245,7 +394,84 @@ class BookingServiceImplTest {
 
         // then
         assertThrows(BadRequestException.class,
-                () -> bookingService.handleBooking(user.getId(), booking.getId(), true));
+                () -> bookingService.handleBooking(user.getId(), booking.getId(), true, null));
+    }
+
+    @Test
+    void handleBooking_repeatedIdempotencyKey_ReturnsCurrentStateWithoutSaving() {
+        // given
+        LocalDateTime start = LocalDateTime.now();
+        LocalDateTime end = LocalDateTime.now().plusHours(1);
+
+        Item item = new Item();
+        item.setUser(new User(1L, "email", "name"));
+        item.setAvailable(true);
+
+        User user = new User();
+        user.setId(2L);
+
+        Booking booking = new Booking(1L, start, end, item, user, BookingStatus.APPROVED);
+        booking.setStatusKey("approve-1");
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+
+        // when
+        BookingResponseDto bookingResponseDto = bookingService.handleBooking(1L, booking.getId(), true,
+                "approve-1");
+
+        // then
+        assertEquals(BookingStatus.APPROVED, bookingResponseDto.getStatus());
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(itemRepository, never()).findByIdForUpdate(any());
+    }
+
+    @Test
+    void handleBooking_approvedTrue_StoresIdempotencyKey() {
+        // given
+        Item item = new Item();
+        item.setUser(new User(1L, "email", "name"));
+        item.setAvailable(true);
+
+        Booking booking = new Booking(1L, LocalDateTime.now(), LocalDateTime.now().plusHours(1), item,
+                new User(2L, "email", "name"), BookingStatus.WAITING);
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(itemRepository.findByIdForUpdate(any())).thenReturn(Optional.of(item));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+
+        // when
+        bookingService.handleBooking(1L, booking.getId(), true, "approve-1");
+
+        // then
+        assertEquals(BookingStatus.APPROVED, booking.getStatus());
+        assertEquals("approve-1", booking.getStatusKey());
+    }
+
+    @Test
+    void handleBooking_bookingAlreadyRejected_ReturnsCurrentStateWithoutSaving() {
+        // given
+        Item item = new Item();
+        item.setUser(new User(1L, "email", "name"));
+        item.setAvailable(true);
+
+        Booking booking = new Booking(1L, LocalDateTime.now(), LocalDateTime.now().plusHours(1), item,
+                new User(2L, "email", "name"), BookingStatus.REJECTED);
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+
+        // when
+        BookingResponseDto bookingResponseDto = bookingService.handleBooking(1L, booking.getId(), false, null);
+
+        // then
+        assertEquals(BookingStatus.REJECTED, bookingResponseDto.getStatus());
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void handleBooking_idempotencyKeyTooLong_ThrowsBadRequestException() {
+        // given
+        String idempotencyKey = "k".repeat(65);
+
+        // then
+        assertThrows(BadRequestException.class,
+                () -> bookingService.handleBooking(1L, 1L, true, idempotencyKey));
     }
 
     @Test
@@ -269,10 +495,10 @@ class BookingServiceImplTest {
 
         // then
         assertEquals(booking.getId(), actualBooking.getId());
-        assertEquals(booking.getBooker(), actualBooking.getBooker());
+        assertEquals(UserDtoMapper.toShortDto(booking.getBooker()), actualBooking.getBooker());
         assertEquals(booking.getStart(), actualBooking.getStart());
         assertEquals(booking.getEnd(), actualBooking.getEnd());
-        assertEquals(booking.getItem(), actualBooking.getItem());
+        assertEquals(ItemDtoMapper.toShortDto(booking.getItem()), actualBooking.getItem());
         assertEquals(booking.getStatus(), actualBooking.getStatus());
     }
 
@@ -297,6 +523,42 @@ class BookingServiceImplTest {
                 () -> bookingService.getBooking(1L, 1L));
     }
 
+    @Test
+    void getAllBookingsByCursor_MorePagesAvailable_ReturnsCursorOfLastBooking() {
+        // given
+        LocalDateTime start = LocalDateTime.now().withNano(0);
+        Item item = new Item();
+        item.setUser(new User(2L, "email", "name"));
+        User user = new User();
+        user.setId(1L);
+        Booking newest = new Booking(3L, start.plusDays(2), start.plusDays(3), item, user, BookingStatus.WAITING);
+        Booking older = new Booking(2L, start.plusDays(1), start.plusDays(2), item, user, BookingStatus.WAITING);
+        Booking oldest = new Booking(1L, start, start.plusDays(1), item, user, BookingStatus.WAITING);
+        String cursor = new BookingCursor(start.plusDays(5), 9L).encode();
+        when(bookingRepository.findPageAfter(any(), eq(start.plusDays(5)), eq(9L), eq(3)))
+                .thenReturn(List.of(view(newest), view(older), view(oldest)));
+
+        // when
+        BookingPageDto page = bookingService.getAllBookingsByCursor(1L, BookingState.ALL, "bookings", cursor, 2);
+
+        // then
+        assertEquals(2, page.getBookings().size());
+        assertEquals(newest.getId(), page.getBookings().get(0).getId());
+        assertEquals(older.getId(), page.getBookings().get(1).getId());
+        BookingCursor next = BookingCursor.decode(page.getNextCursor());
+        assertEquals(older.getStart(), next.getStart());
+        assertEquals(older.getId(), next.getId());
+    }
+
+    @Test
+    void getAllBookingsByCursor_MalformedCursor_ThrowsBadRequestException() {
+        // given
+
+        // then
+        assertThrows(BadRequestException.class,
+                () -> bookingService.getAllBookingsByCursor(1L, BookingState.ALL, "bookings", "not-a-cursor", 10));
+    }
+
     @Test
     void getAllBookings_pathOwnerCaseAllIsValid_ReturnsListOfBookingResponseDto() {
         // given
@@ -309,11 +571,10 @@ class BookingServiceImplTest {
 
         User user = new User();
         user.setId(1L);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findAllBookingsByItem_UserId(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findViewsByOwnerId(anyLong(), any())).thenReturn(List.of(view(booking)));
 
         // when
         List<BookingResponseDto> allBookings =
@@ -321,10 +582,10 @@ class BookingServiceImplTest {
 
         // then
         assertEquals(booking.getId(), allBookings.get(0).getId());
-        assertEquals(booking.getBooker(), allBookings.get(0).getBooker());
+        assertEquals(UserDtoMapper.toShortDto(booking.getBooker()), allBookings.get(0).getBooker());
         assertEquals(booking.getStart(), allBookings.get(0).getStart());
         assertEquals(booking.getEnd(), allBookings.get(0).getEnd());
-        assertEquals(booking.getItem(), allBookings.get(0).getItem());
+        assertEquals(ItemDtoMapper.toShortDto(booking.getItem()), allBookings.get(0).getItem());
         assertEquals(booking.getStatus(), allBookings.get(0).getStatus());
     }
 
@@ -340,13 +601,12 @@ class BookingServiceImplTest {
 
         User user = new User();
         user.setId(1L);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findAllBookingsByItem_UserIdAndStartBeforeAndEndAfter(anyLong(),
+        when(bookingRepository.findViewsByOwnerIdAndStartBeforeAndEndAfter(anyLong(),
                 any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(view(booking)));
 
         // when
         List<BookingResponseDto> allBookings =
@@ -354,10 +614,10 @@ class BookingServiceImplTest {
 
         // then
         assertEquals(booking.getId(), allBookings.get(0).getId());
-        assertEquals(booking.getBooker(), allBookings.get(0).getBooker());
+        assertEquals(UserDtoMapper.toShortDto(booking.getBooker()), allBookings.get(0).getBooker());
         assertEquals(booking.getStart(), allBookings.get(0).getStart());
         assertEquals(booking.getEnd(), allBookings.get(0).getEnd());
-        assertEquals(booking.getItem(), allBookings.get(0).getItem());
+        assertEquals(ItemDtoMapper.toShortDto(booking.getItem()), allBookings.get(0).getItem());
         assertEquals(booking.getStatus(), allBookings.get(0).getStatus());
     }
 
@@ -373,13 +633,12 @@ class BookingServiceImplTest {
 
         User user = new User();
         user.setId(1L);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findAllBookingsByItem_UserIdAndEndBefore(anyLong(),
+        when(bookingRepository.findViewsByOwnerIdAndEndBefore(anyLong(),
                 any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(view(booking)));
 
         // when
         List<BookingResponseDto> allBookings =
@@ -387,10 +646,10 @@ class BookingServiceImplTest {
 
         // then
         assertEquals(booking.getId(), allBookings.get(0).getId());
-        assertEquals(booking.getBooker(), allBookings.get(0).getBooker());
+        assertEquals(UserDtoMapper.toShortDto(booking.getBooker()), allBookings.get(0).getBooker());
         assertEquals(booking.getStart(), allBookings.get(0).getStart());
         assertEquals(booking.getEnd(), allBookings.get(0).getEnd());
-        assertEquals(booking.getItem(), allBookings.get(0).getItem());
+        assertEquals(ItemDtoMapper.toShortDto(booking.getItem()), allBookings.get(0).getItem());
         assertEquals(booking.getStatus(), allBookings.get(0).getStatus());
     }
 
@@ -406,13 +665,12 @@ class BookingServiceImplTest {
 
         User user = new User();
         user.setId(1L);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findAllBookingsByItem_UserIdAndStartAfter(anyLong(),
+        when(bookingRepository.findViewsByOwnerIdAndStartAfter(anyLong(),
                 any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(view(booking)));
 
         // when
         List<BookingResponseDto> allBookings =
@@ -420,10 +678,10 @@ class BookingServiceImplTest {
 
         // then
         assertEquals(booking.getId(), allBookings.get(0).getId());
-        assertEquals(booking.getBooker(), allBookings.get(0).getBooker());
+        assertEquals(UserDtoMapper.toShortDto(booking.getBooker()), allBookings.get(0).getBooker());
         assertEquals(booking.getStart(), allBookings.get(0).getStart());
         assertEquals(booking.getEnd(), allBookings.get(0).getEnd());
-        assertEquals(booking.getItem(), allBookings.get(0).getItem());
+        assertEquals(ItemDtoMapper.toShortDto(booking.getItem()), allBookings.get(0).getItem());
         assertEquals(booking.getStatus(), allBookings.get(0).getStatus());
     }
 
@@ -439,13 +697,12 @@ class BookingServiceImplTest {
 
         User user = new User();
         user.setId(1L);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findAllBookingsByItem_UserIdAndStatus(anyLong(),
+        when(bookingRepository.findViewsByOwnerIdAndStatus(anyLong(),
                 any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(view(booking)));
 
         // when
         List<BookingResponseDto> allBookings =
@@ -453,10 +710,10 @@ class BookingServiceImplTest {
 
         // then
         assertEquals(booking.getId(), allBookings.get(0).getId());
-        assertEquals(booking.getBooker(), allBookings.get(0).getBooker());
+        assertEquals(UserDtoMapper.toShortDto(booking.getBooker()), allBookings.get(0).getBooker());
         assertEquals(booking.getStart(), allBookings.get(0).getStart());
         assertEquals(booking.getEnd(), allBookings.get(0).getEnd());
-        assertEquals(booking.getItem(), allBookings.get(0).getItem());
+        assertEquals(ItemDtoMapper.toShortDto(booking.getItem()), allBookings.get(0).getItem());
         assertEquals(booking.getStatus(), allBookings.get(0).getStatus());
     }
 
@@ -472,13 +729,12 @@ class BookingServiceImplTest {
 
         User user = new User();
         user.setId(1L);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findAllBookingsByItem_UserIdAndStatus(anyLong(),
+        when(bookingRepository.findViewsByOwnerIdAndStatus(anyLong(),
                 any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(view(booking)));
 
         // when
         List<BookingResponseDto> allBookings =
@@ -486,10 +742,10 @@ class BookingServiceImplTest {
 
         // then
         assertEquals(booking.getId(), allBookings.get(0).getId());
-        assertEquals(booking.getBooker(), allBookings.get(0).getBooker());
+        assertEquals(UserDtoMapper.toShortDto(booking.getBooker()), allBookings.get(0).getBooker());
         assertEquals(booking.getStart(), allBookings.get(0).getStart());
         assertEquals(booking.getEnd(), allBookings.get(0).getEnd());
-        assertEquals(booking.getItem(), allBookings.get(0).getItem());
+        assertEquals(ItemDtoMapper.toShortDto(booking.getItem()), allBookings.get(0).getItem());
         assertEquals(booking.getStatus(), allBookings.get(0).getStatus());
     }
 
@@ -505,11 +761,10 @@ class BookingServiceImplTest {
 
         User user = new User();
         user.setId(1L);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findAllByBookerId(anyLong(), any())).thenReturn(List.of(booking));
+        when(bookingRepository.findViewsByBookerId(anyLong(), any())).thenReturn(List.of(view(booking)));
 
         // when
         List<BookingResponseDto> allBookings =
@@ -517,10 +772,10 @@ class BookingServiceImplTest {
 
         // then
         assertEquals(booking.getId(), allBookings.get(0).getId());
-        assertEquals(booking.getBooker(), allBookings.get(0).getBooker());
+        assertEquals(UserDtoMapper.toShortDto(booking.getBooker()), allBookings.get(0).getBooker());
         assertEquals(booking.getStart(), allBookings.get(0).getStart());
         assertEquals(booking.getEnd(), allBookings.get(0).getEnd());
-        assertEquals(booking.getItem(), allBookings.get(0).getItem());
+        assertEquals(ItemDtoMapper.toShortDto(booking.getItem()), allBookings.get(0).getItem());
         assertEquals(booking.getStatus(), allBookings.get(0).getStatus());
     }
 
@@ -536,13 +791,12 @@ class BookingServiceImplTest {
 
         User user = new User();
         user.setId(1L);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfter(anyLong(),
+        when(bookingRepository.findViewsByBookerIdAndStartBeforeAndEndAfter(anyLong(),
                 any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(view(booking)));
 
         // when
         List<BookingResponseDto> allBookings =
@@ -550,10 +804,10 @@ class BookingServiceImplTest {
 
         // then
         assertEquals(booking.getId(), allBookings.get(0).getId());
-        assertEquals(booking.getBooker(), allBookings.get(0).getBooker());
+        assertEquals(UserDtoMapper.toShortDto(booking.getBooker()), allBookings.get(0).getBooker());
         assertEquals(booking.getStart(), allBookings.get(0).getStart());
         assertEquals(booking.getEnd(), allBookings.get(0).getEnd());
-        assertEquals(booking.getItem(), allBookings.get(0).getItem());
+        assertEquals(ItemDtoMapper.toShortDto(booking.getItem()), allBookings.get(0).getItem());
         assertEquals(booking.getStatus(), allBookings.get(0).getStatus());
     }
 
@@ -569,13 +823,12 @@ class BookingServiceImplTest {
 
         User user = new User();
         user.setId(1L);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findAllByBookerIdAndEndBefore(anyLong(),
+        when(bookingRepository.findViewsByBookerIdAndEndBefore(anyLong(),
                 any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(view(booking)));
 
         // when
         List<BookingResponseDto> allBookings =
@@ -583,10 +836,10 @@ class BookingServiceImplTest {
 
         // then
         assertEquals(booking.getId(), allBookings.get(0).getId());
-        assertEquals(booking.getBooker(), allBookings.get(0).getBooker());
+        assertEquals(UserDtoMapper.toShortDto(booking.getBooker()), allBookings.get(0).getBooker());
         assertEquals(booking.getStart(), allBookings.get(0).getStart());
         assertEquals(booking.getEnd(), allBookings.get(0).getEnd());
-        assertEquals(booking.getItem(), allBookings.get(0).getItem());
+        assertEquals(ItemDtoMapper.toShortDto(booking.getItem()), allBookings.get(0).getItem());
         assertEquals(booking.getStatus(), allBookings.get(0).getStatus());
     }
 
@@ -602,13 +855,12 @@ class BookingServiceImplTest {
 
         User user = new User();
         user.setId(1L);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findAllByBookerIdAndStartAfter(anyLong(),
+        when(bookingRepository.findViewsByBookerIdAndStartAfter(anyLong(),
                 any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(view(booking)));
 
         // when
         List<BookingResponseDto> allBookings =
@@ -616,10 +868,10 @@ class BookingServiceImplTest {
 
         // then
         assertEquals(booking.getId(), allBookings.get(0).getId());
-        assertEquals(booking.getBooker(), allBookings.get(0).getBooker());
+        assertEquals(UserDtoMapper.toShortDto(booking.getBooker()), allBookings.get(0).getBooker());
         assertEquals(booking.getStart(), allBookings.get(0).getStart());
         assertEquals(booking.getEnd(), allBookings.get(0).getEnd());
-        assertEquals(booking.getItem(), allBookings.get(0).getItem());
+        assertEquals(ItemDtoMapper.toShortDto(booking.getItem()), allBookings.get(0).getItem());
         assertEquals(booking.getStatus(), allBookings.get(0).getStatus());
     }
 
@@ -635,13 +887,12 @@ class BookingServiceImplTest {
 
         User user = new User();
         user.setId(1L);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findAllByBookerIdAndStatus(anyLong(),
+        when(bookingRepository.findViewsByBookerIdAndStatus(anyLong(),
                 any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(view(booking)));
 
         // when
         List<BookingResponseDto> allBookings =
@@ -649,10 +900,10 @@ class BookingServiceImplTest {
 
         // then
         assertEquals(booking.getId(), allBookings.get(0).getId());
-        assertEquals(booking.getBooker(), allBookings.get(0).getBooker());
+        assertEquals(UserDtoMapper.toShortDto(booking.getBooker()), allBookings.get(0).getBooker());
         assertEquals(booking.getStart(), allBookings.get(0).getStart());
         assertEquals(booking.getEnd(), allBookings.get(0).getEnd());
-        assertEquals(booking.getItem(), allBookings.get(0).getItem());
+        assertEquals(ItemDtoMapper.toShortDto(booking.getItem()), allBookings.get(0).getItem());
         assertEquals(booking.getStatus(), allBookings.get(0).getStatus());
     }
 
@@ -668,12 +919,11 @@ class BookingServiceImplTest {
 
         User user = new User();
         user.setId(1L);
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
 
         Booking booking = new Booking(1L, start, end, item, user, BookingStatus.WAITING);
 
-        when(bookingRepository.findAllByBookerIdAndStatus(anyLong(), any(BookingStatus.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findViewsByBookerIdAndStatus(anyLong(), any(BookingStatus.class), any(Pageable.class)))
+                .thenReturn(List.of(view(booking)));
 
         // when
         List<BookingResponseDto> allBookings =
@@ -681,10 +931,41 @@ class BookingServiceImplTest {
 
         // then
         assertEquals(booking.getId(), allBookings.get(0).getId());
-        assertEquals(booking.getBooker(), allBookings.get(0).getBooker());
+        assertEquals(UserDtoMapper.toShortDto(booking.getBooker()), allBookings.get(0).getBooker());
         assertEquals(booking.getStart(), allBookings.get(0).getStart());
         assertEquals(booking.getEnd(), allBookings.get(0).getEnd());
-        assertEquals(booking.getItem(), allBookings.get(0).getItem());
+        assertEquals(ItemDtoMapper.toShortDto(booking.getItem()), allBookings.get(0).getItem());
         assertEquals(booking.getStatus(), allBookings.get(0).getStatus());
     }
-}
\ No newline at end of file
+
+    private static BookingView view(Booking booking) {
+        Item item = booking.getItem();
+        User booker = booking.getBooker();
+        return new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                item.getId(), item.getName(), booker.getId(), booker.getName());
+    }
+
+    private static BookingPeriod period(Long id, Long itemId, LocalDateTime start, LocalDateTime end) {
+        return new BookingPeriod() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+}
@@ -60,16 +60,16 @@ class BookingServiceIntegrationTest {
         itemRepository.save(item2);
 
         Booking booking1 = new Booking();
-        booking1.setStart(LocalDateTime.now().minusDays(2));
-        booking1.setEnd(LocalDateTime.now().plusDays(1));
+        booking1.setStart(LocalDateTime.now().minusDays(2).withNano(0));
+        booking1.setEnd(LocalDateTime.now().plusDays(1).withNano(0));
         booking1.setItem(item1);
         booking1.setStatus(BookingStatus.APPROVED);
         booking1.setBooker(user);
         bookingRepository.save(booking1);
 
         Booking booking2 = new Booking();
-        booking2.setStart(LocalDateTime.now().plusDays(2));
-        booking2.setEnd(LocalDateTime.now().plusDays(3));
+        booking2.setStart(LocalDateTime.now().plusDays(2).withNano(0));
+        booking2.setEnd(LocalDateTime.now().plusDays(3).withNano(0));
         booking2.setItem(item2);
         booking2.setStatus(BookingStatus.APPROVED);
         booking2.setBooker(user);
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+import ru.practicum.shareit.user.dto.UserResponseDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EntityCacheRegionFactoryTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactoryImplementor sessionFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getUser_SecondLookupIsServedFromCache() throws Exception {
+        // given
+        UserResponseDto user = userService.saveUser(user("cached@email.com", "cached"));
+        long hitsBefore = cacheStatistic("users", "CacheHits");
+
+        // when
+        userService.getUser(user.getId());
+        statistics.clear();
+        userService.getUser(user.getId());
+
+        // then
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(cacheStatistic("users", "CacheHits") > hitsBefore);
+    }
+
+    @Test
+    void updateUser_RefreshesCachedUser() {
+        // given
+        UserResponseDto user = userService.saveUser(user("before@email.com", "before"));
+        userService.getUser(user.getId());
+
+        // when
+        userService.updateUser(user.getId(), user(null, "after"));
+
+        // then
+        assertEquals("after", userService.getUser(user.getId()).getName());
+    }
+
+    @Test
+    void deleteUser_EvictsCachedUser() {
+        // given
+        UserResponseDto user = userService.saveUser(user("deleted@email.com", "deleted"));
+        userService.getUser(user.getId());
+        assertTrue(sessionFactory.getCache().contains(User.class, user.getId()));
+
+        // when
+        userService.deleteUser(user.getId());
+        statistics.clear();
+
+        // then
+        assertThrows(NotFoundException.class, () -> userService.getUser(user.getId()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateItem_RefreshesCachedItem() {
+        // given
+        UserResponseDto owner = userService.saveUser(user("item-owner@email.com", "owner"));
+        ItemResponseDto item = itemService.addItem(owner.getId(), new ItemRequestDto("drill", "drill", true, null));
+        itemService.getItem(owner.getId(), item.getId());
+
+        // when
+        itemService.updateItem(owner.getId(), item.getId(), new ItemRequestDto("saw", null, null, null));
+
+        // then
+        assertTrue(sessionFactory.getCache().contains(Item.class, item.getId()));
+        assertEquals("saw", itemService.getItem(owner.getId(), item.getId()).getName());
+    }
+
+    private long cacheStatistic(String cache, String attribute) throws Exception {
+        JCacheRegionFactory regionFactory = (JCacheRegionFactory) sessionFactory.getCache().getRegionFactory();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("javax.cache:type=CacheStatistics,CacheManager="
+                + regionFactory.getCacheManager().getURI() + ",Cache=" + cache);
+        return (Long) server.getAttribute(name, attribute);
+    }
+
+    private UserRequestDto user(String email, String name) {
+        UserRequestDto user = new UserRequestDto();
+        user.setEmail(email);
+        user.setName(name);
+        return user;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@AutoConfigureMetrics
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:shareit-metrics-defaults")
+class MetricsConfigDefaultsTest {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void hibernateStatisticsAndMetrics_AreOffByDefault() {
+        // then
+        assertFalse(entityManagerFactory.unwrap(SessionFactory.class).getStatistics().isStatisticsEnabled());
+        assertTrue(meterRegistry.find("hibernate.statements").meters().isEmpty(), "statement counter");
+        assertTrue(meterRegistry.find("hibernate.second.level.cache.requests").meters().isEmpty(),
+                "cache region counters");
+    }
+
+    @Test
+    void entityCacheMetrics_AreBoundWithoutHibernateStatistics() {
+        // given
+        User user = userRepository.save(new User(null, "cache-metrics@email.com", "cached"));
+
+        // when
+        userRepository.findById(user.getId());
+        userRepository.findById(user.getId());
+
+        // then
+        FunctionCounter hits = meterRegistry.find("cache.gets")
+                .tags("cache", "users", "result", "hit")
+                .functionCounter();
+        assertNotNull(hits);
+        assertTrue(hits.count() > 0, "cache hits");
+        assertNotNull(meterRegistry.find("cache.gets").tags("cache", "items", "result", "miss").functionCounter());
+    }
+}
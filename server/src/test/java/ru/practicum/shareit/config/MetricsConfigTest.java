@@ -0,0 +1,52 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMetrics
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-metrics",
+        "shareit.metrics.hibernate-statistics=true"
+})
+class MetricsConfigTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheus_ExposesRequestRepositoryHibernateAndPoolMetrics() throws Exception {
+        // given
+        mockMvc.perform(get("/users/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk());
+
+        // when
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // then
+        assertTrue(scrape.contains("http_server_requests_seconds_count{application=\"shareit-server\","
+                + "exception=\"NotFoundException\",handler=\"UserController.getUser\",method=\"GET\","
+                + "outcome=\"CLIENT_ERROR\",status=\"404\",uri=\"/users/{userId}\",} 1.0"), "request timer");
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "request histogram");
+        assertTrue(scrape.contains("method=\"findAll\",repository=\"UserRepository\""), "repository timer");
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_bucket{"), "repository histogram");
+        assertTrue(scrape.contains("hibernate_statements_total{"), "statement counter");
+        assertTrue(scrape.contains("hibernate_second_level_cache_requests_total{"), "cache region counters");
+        assertTrue(scrape.contains("hikaricp_connections_active{"), "pool gauges");
+        assertTrue(scrape.contains("shareit_search_index_hit_rate{"), "search index hit rate");
+        assertTrue(scrape.contains("shareit_search_index_memory_bytes{"), "search index memory");
+        assertTrue(scrape.contains("shareit_search_index_searches_total{application=\"shareit-server\","
+                + "result=\"miss\",}"), "search index searches");
+    }
+}
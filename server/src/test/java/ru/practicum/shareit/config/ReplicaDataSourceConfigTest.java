@@ -0,0 +1,101 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+import ru.practicum.shareit.user.dto.UserResponseDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-primary;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replica.jdbc-url=jdbc:h2:mem:shareit-replica;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replica.username=test",
+        "shareit.datasource.replica.password=test"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicaDataSourceConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeAll
+    void migrateReplica() throws SQLException {
+        Flyway.configure()
+                .dataSource(replicaDataSource.unwrap(HikariDataSource.class).getJdbcUrl(), "test", "test")
+                .locations("classpath:db/migration/common")
+                .load()
+                .migrate();
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+    }
+
+    @Test
+    void readOnlyTransaction_ReadsFromReplica() throws Exception {
+        // given
+        replica.update("insert into users (id, email, name) values (1000, 'replica@email.com', 'replica')");
+
+        // then
+        mockMvc.perform(get("/users/1000").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("replica@email.com"));
+        assertEquals(0, count(primary, "replica@email.com"));
+    }
+
+    @Test
+    void readWriteTransaction_WritesToPrimary() {
+        // when
+        UserResponseDto saved = userService.saveUser(user("primary@email.com", "primary"));
+
+        // then
+        assertEquals(1, count(primary, "primary@email.com"));
+        assertEquals(0, count(replica, "primary@email.com"));
+        assertEquals("primary", userService.updateUser(saved.getId(),
+                user("primary-updated@email.com", null)).getName());
+        assertEquals(1, count(primary, "primary-updated@email.com"));
+    }
+
+    private UserRequestDto user(String email, String name) {
+        UserRequestDto user = new UserRequestDto();
+        user.setEmail(email);
+        user.setName(name);
+        return user;
+    }
+
+    private int count(JdbcTemplate jdbcTemplate, String email) {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from users where email = ?", Integer.class, email);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.tracing.TracingConfig;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utility.CustomHeaders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-tracing",
+        "shareit.tracing.file=" + TracingConfigTest.SPAN_FILE,
+        "spring.sleuth.sampler.probability=1.0"
+})
+class TracingConfigTest {
+    static final String SPAN_FILE = "target/traces/tracing-config-test.jsonl";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void request_ContinuesGatewayTraceWithServerAndSqlSpans() throws Exception {
+        // given
+        User user = userRepository.save(new User(null, "traced-" + System.nanoTime() + "@email.com", "traced"));
+        String traceId = UUID.randomUUID().toString().replace("-", "");
+        String gatewaySpanId = String.format("%016x", ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE));
+
+        // when
+        mockMvc.perform(get("/items")
+                        .header("traceparent", "00-" + traceId + "-" + gatewaySpanId + "-01")
+                        .header(CustomHeaders.X_SHARER_USER_ID, user.getId()))
+                .andExpect(status().isOk());
+
+        // then
+        List<JsonNode> spans = awaitServerSpan(traceId);
+        JsonNode serverSpan = spans.stream().filter(span -> "SERVER".equals(span.path("kind").asText()))
+                .findFirst().orElseThrow();
+        assertEquals(gatewaySpanId, serverSpan.path("parentId").asText());
+        assertEquals("GET /items", serverSpan.path("name").asText());
+        assertEquals(user.getId().toString(), serverSpan.path("tags").path(TracingConfig.USER_ID_TAG).asText());
+        assertEquals("shareit-server", serverSpan.path("localEndpoint").path("serviceName").asText());
+
+        assertTrue(spans.stream().anyMatch(span -> span.path("tags").path("jdbc.query").asText()
+                .startsWith("select item0_.id")), "item query span");
+        assertTrue(spans.stream().allMatch(span -> span.path("duration").asLong() > 0), "durations");
+        assertFalse(spans.stream().anyMatch(span -> "result-set".equals(span.path("name").asText())),
+                "result set spans");
+    }
+
+    // Spans are written in the background; the server span ends last, after the SQL spans of the request.
+    private List<JsonNode> awaitServerSpan(String traceId) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<JsonNode> spans = new ArrayList<>();
+        while (spans.stream().noneMatch(span -> "SERVER".equals(span.path("kind").asText()))
+                && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            spans.clear();
+            for (String line : Files.readAllLines(Path.of(SPAN_FILE))) {
+                JsonNode span = objectMapper.readTree(line);
+                if (traceId.equals(span.path("traceId").asText())) {
+                    spans.add(span);
+                }
+            }
+        }
+        return spans;
+    }
+}
@@ -11,17 +11,27 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemImportProgressDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.service.ItemImporter;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -38,6 +48,51 @@ class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemImporter itemImporter;
+
+    @Test
+    void importItems_Ndjson_StreamsProgressLines() throws Exception {
+        // given
+        String body = "{\"name\":\"Drill\",\"description\":\"Cordless\",\"available\":true}\n{\"name\":\"\"}\n";
+        doAnswer(invocation -> {
+            Consumer<ItemImportProgressDto> listener = invocation.getArgument(3);
+            listener.accept(ItemImportProgressDto.rowError(2, "name: must not be blank"));
+            ItemImportProgressDto result = ItemImportProgressDto.progress(2, 1, 1, true);
+            listener.accept(result);
+            return result;
+        }).when(itemImporter).importItems(eq(1L),
+                argThat(type -> type.isCompatibleWith(MediaType.parseMediaType("application/x-ndjson"))),
+                any(InputStream.class), any());
+
+        // then
+        mockMvc.perform(
+                        post("/items/import")
+                                .contentType("application/x-ndjson")
+                                .header("X-Sharer-User-Id", 1)
+                                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"row\":2,\"error\":\"name: must not be blank\"}\n" +
+                        "{\"processed\":2,\"imported\":1,\"failed\":1,\"done\":true}\n"));
+    }
+
+    @Test
+    void importItems_UserNotFound_ReturnsNotFound() throws Exception {
+        // given
+        when(itemImporter.importItems(eq(99L), any(MediaType.class), any(InputStream.class), any()))
+                .thenThrow(new NotFoundException("User with id = 99 not found"));
+
+        // then
+        mockMvc.perform(
+                        post("/items/import")
+                                .contentType("text/csv")
+                                .header("X-Sharer-User-Id", 99)
+                                .content("name,description,available\n"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     void addItem_RequestIsValid_ReturnItem() throws Exception {
         // given
@@ -168,6 +223,47 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[1].available").value("false"));
     }
 
+    @Test
+    void searchItem_WithFreePeriod_SearchesFreeItems() throws Exception {
+        // given
+        ItemResponseDto itemResponseDto = createItemDetailsDto();
+        LocalDateTime freeFrom = LocalDateTime.of(2030, 6, 1, 10, 0);
+        LocalDateTime freeTo = LocalDateTime.of(2030, 6, 3, 10, 0);
+
+        // when
+        when(itemService.searchAvailableItemFreeBetween("", freeFrom, freeTo, 0, 10))
+                .thenReturn(List.of(itemResponseDto));
+
+        // then
+        mockMvc.perform(
+                        get("/items/search")
+                                .param("freeFrom", "2030-06-01T10:00:00")
+                                .param("freeTo", "2030-06-03T10:00:00")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Item"));
+    }
+
+    @Test
+    void getAvailability_requestIsValid_ReturnsAvailability() throws Exception {
+        // given
+        LocalDateTime from = LocalDateTime.of(2030, 6, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 6, 3, 10, 0);
+
+        // when
+        when(itemService.getAvailability(1L, from, to)).thenReturn(new ItemAvailabilityDto(1L, from, to, true));
+
+        // then
+        mockMvc.perform(
+                        get("/items/1/availability")
+                                .param("from", "2030-06-01T10:00:00")
+                                .param("to", "2030-06-03T10:00:00")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(1))
+                .andExpect(jsonPath("$.free").value(true));
+    }
+
     @Test
     void addComment_requestIsValid_ReturnsComment() throws Exception {
         // given
@@ -10,6 +10,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -49,4 +50,25 @@ class ItemRepositoryTest {
         userRepository.delete(user);
         itemRepository.delete(itemToSave);
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchAvailableItem_PagesAreOrderedById() {
+        User user = userRepository.save(new User(null, "paged-search@email.com", "name"));
+        List<Long> savedIds = List.of("Bench drill", "Drill press", "Hammer drill").stream()
+                .map(name -> itemRepository.save(new Item(null, name, "tool", user, true, null)).getId())
+                .sorted()
+                .collect(Collectors.toList());
+
+        List<Long> firstPage = ids(itemRepository.searchAvailableItem("drill", PageRequest.of(0, 2)));
+        List<Long> secondPage = ids(itemRepository.searchAvailableItem("drill", PageRequest.of(1, 2)));
+
+        assertEquals(savedIds.subList(0, 2), firstPage);
+        assertEquals(savedIds.subList(2, 3), secondPage);
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.RecordingStatementInspector;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ * Runs only against a dedicated, disposable PostgreSQL database, e.g.
+ * SHAREIT_BENCHMARK_DB_URL=jdbc:postgresql://localhost:6541/shareit_bench mvn -pl server test -Dtest=ItemSearchPostgresPlanTest
+ */
+@SpringBootTest(properties = RecordingStatementInspector.PROPERTY)
+@EnabledIfEnvironmentVariable(named = "SHAREIT_BENCHMARK_DB_URL", matches = "jdbc:postgresql:.+")
+class ItemSearchPostgresPlanTest {
+    private static final int ITEMS = 1_000_000;
+    private static final List<String> SEARCH_TEXTS = List.of("drill", "saw", "ladder 42", "item-99999", "missing");
+    // match a fifth of the rows: walking the primary key finds the first page sooner than the trigram indexes do
+    private static final Set<String> COMMON_TEXTS = Set.of("drill", "saw");
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgresDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("SHAREIT_BENCHMARK_DB_URL"));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> System.getenv().getOrDefault("SHAREIT_BENCHMARK_DB_USER", "shareit"));
+        registry.add("spring.datasource.password", () -> System.getenv().getOrDefault("SHAREIT_BENCHMARK_DB_PASSWORD", "shareit"));
+    }
+
+    @BeforeEach
+    void seedItems() {
+        Long itemCount = jdbcTemplate.queryForObject("select count(*) from items", Long.class);
+        if (itemCount != null && itemCount >= ITEMS) {
+            return;
+        }
+        jdbcTemplate.update("insert into users (email, name) values ('benchmark@shareit.ru', 'benchmark') " +
+                "on conflict (email) do nothing");
+        jdbcTemplate.update("insert into items (name, description, user_id, available) " +
+                        "select (array['Drill', 'Saw', 'Ladder', 'Tent', 'Kayak'])[1 + g % 5] || ' ' || g, " +
+                        "'item-' || g || ' ' || md5(g::text), " +
+                        "(select id from users where email = 'benchmark@shareit.ru'), g % 3 <> 0 " +
+                        "from generate_series(1, ?) g", ITEMS);
+        jdbcTemplate.execute("analyze items");
+    }
+
+    @Test
+    void searchAvailableItem_UsesTrigramIndexes() {
+        for (String text : SEARCH_TEXTS) {
+            List<String> statements = RecordingStatementInspector.capture(
+                    () -> itemRepository.searchAvailableItem(text, PageRequest.of(0, 20)));
+            assertEquals(1, statements.size(), statements.toString());
+            List<String> plan = jdbcTemplate.queryForList("explain " + statements.get(0), String.class,
+                    text, text, 20);
+            String index = COMMON_TEXTS.contains(text) ? "Index Scan using pk_items" : "_trgm";
+            assertTrue(plan.stream().anyMatch(line -> line.contains(index)), String.join("\n", plan));
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemImportProgressDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-import",
+        "shareit.import.max-record-length=" + ItemImporterIntegrationTest.MAX_RECORD_LENGTH
+})
+class ItemImporterIntegrationTest {
+    static final int MAX_RECORD_LENGTH = 1024;
+    private static final MediaType NDJSON = MediaType.parseMediaType(ItemImporter.NDJSON);
+    private static final MediaType CSV = MediaType.parseMediaType(ItemImporter.CSV);
+
+    @Autowired
+    private ItemImporter itemImporter;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private ItemRequest request;
+
+    @BeforeEach
+    void seed() {
+        String suffix = String.valueOf(System.nanoTime());
+        owner = userRepository.save(new User(null, "import-owner-" + suffix + "@email.com", "owner"));
+        User requester = userRepository.save(new User(null, "import-requester-" + suffix + "@email.com", "requester"));
+        request = itemRequestRepository.save(new ItemRequest(null, "need a drill", LocalDateTime.now(), requester));
+    }
+
+    @Test
+    void importItems_Ndjson_SavesValidRowsInChunksAndReportsInvalidOnes() throws Exception {
+        // given
+        int rows = ItemImporter.CHUNK_SIZE * 2 + 100;
+        StringBuilder ndjson = new StringBuilder();
+        for (int line = 1; line <= rows; line++) {
+            if (line % 100 == 0) {
+                ndjson.append("{\"name\":\"\",\"description\":\"bad\",\"available\":true}\n");
+            } else if (line % 101 == 0) {
+                ndjson.append("{\"name\":\"broken\"\n");
+            } else {
+                ndjson.append("{\"name\":\"Drill ").append(line)
+                        .append("\",\"description\":\"imported\",\"available\":true}\n");
+            }
+        }
+        List<ItemImportProgressDto> events = new ArrayList<>();
+
+        // when
+        ItemImportProgressDto result = itemImporter.importItems(owner.getId(), NDJSON,
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)), events::add);
+
+        // then
+        long invalid = rows / 100 + rows / 101 - rows / (100 * 101);
+        assertEquals(rows, result.getProcessed());
+        assertEquals(invalid, result.getFailed());
+        assertEquals(rows - invalid, result.getImported());
+        assertEquals(rows - invalid, itemRepository.findAllByUserIdOrderById(owner.getId(),
+                Pageable.unpaged()).size());
+
+        List<ItemImportProgressDto> errors = events.stream().filter(e -> e.getRow() != null)
+                .collect(Collectors.toList());
+        assertEquals(invalid, errors.size());
+        assertEquals(100L, errors.get(0).getRow());
+        assertEquals("name: must not be blank", errors.get(0).getError());
+        assertTrue(errors.get(1).getError().startsWith("Malformed JSON"));
+        assertEquals(List.of(false, false, true), events.stream().filter(e -> e.getRow() == null)
+                .map(ItemImportProgressDto::getDone).collect(Collectors.toList()));
+    }
+
+    @Test
+    void importItems_Csv_ParsesQuotedFieldsAndChecksRequests() throws Exception {
+        // given
+        String csv = "available,Name,description,requestId\r\n" +
+                "true,\"Drill, cordless\",\"Says \"\"hello\"\"\nover two lines\"," + request.getId() + "\r\n" +
+                "\r\n" +
+                "maybe,Saw,Hand saw,\r\n" +
+                "false,Ladder,Tall,999999\r\n" +
+                "false,Tent,,\r\n";
+
+        List<ItemImportProgressDto> events = new ArrayList<>();
+
+        // when
+        ItemImportProgressDto result = itemImporter.importItems(owner.getId(), CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), events::add);
+
+        // then
+        assertEquals(4L, result.getProcessed());
+        assertEquals(1L, result.getImported());
+        assertEquals(3L, result.getFailed());
+        assertEquals(List.of("2: available: must be true or false", "4: description: must not be blank",
+                        "3: Request with id = 999999 not found"),
+                events.stream().filter(e -> e.getRow() != null).map(e -> e.getRow() + ": " + e.getError())
+                        .collect(Collectors.toList()));
+
+        Item item = itemRepository.findAllByUserIdOrderById(owner.getId(),
+                Pageable.unpaged()).get(0);
+        assertEquals("Drill, cordless", item.getName());
+        assertEquals("Says \"hello\"\nover two lines", item.getDescription());
+        assertEquals(request.getId(), item.getRequestId());
+    }
+
+    @Test
+    void importItems_RowsLongerThanLimit_AreSkippedAndReported() throws Exception {
+        // given
+        String longText = "x".repeat(MAX_RECORD_LENGTH * 10);
+        String ndjson = "{\"name\":\"Drill\",\"description\":\"" + longText + "\",\"available\":true}\n" +
+                " \r\n" +
+                "{\"name\":\"Saw\",\"description\":\"Hand saw\",\"available\":true}\r\n";
+        String csv = "name,description,available\n" +
+                "Ladder,\"" + longText + "\n" + longText + "\",true\n" +
+                "Tent,Two person tent,false\n";
+        List<ItemImportProgressDto> ndjsonEvents = new ArrayList<>();
+        List<ItemImportProgressDto> csvEvents = new ArrayList<>();
+
+        // when
+        ItemImportProgressDto ndjsonResult = itemImporter.importItems(owner.getId(), NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ndjsonEvents::add);
+        ItemImportProgressDto csvResult = itemImporter.importItems(owner.getId(), CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), csvEvents::add);
+
+        // then
+        assertEquals(2L, ndjsonResult.getProcessed());
+        assertEquals(1L, ndjsonResult.getImported());
+        assertEquals("Row is longer than " + MAX_RECORD_LENGTH + " characters", ndjsonEvents.get(0).getError());
+        assertEquals(1L, ndjsonEvents.get(0).getRow());
+        assertEquals(2L, csvResult.getProcessed());
+        assertEquals(1L, csvResult.getImported());
+        assertEquals("Record is longer than " + MAX_RECORD_LENGTH + " characters", csvEvents.get(0).getError());
+        assertEquals(1L, csvEvents.get(0).getRow());
+        assertEquals(List.of("Saw", "Tent"), itemRepository.findAllByUserIdOrderById(owner.getId(),
+                Pageable.unpaged()).stream().map(Item::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    void importItems_CsvUnterminatedQuote_ReportsRowAndFinishes() throws Exception {
+        // given
+        String csv = "name,description,available\n" +
+                "Saw,Hand saw,true\n" +
+                "Ladder,\"Tall,true\n" +
+                "Tent,Two person tent,false\n";
+        List<ItemImportProgressDto> events = new ArrayList<>();
+
+        // when
+        ItemImportProgressDto result = itemImporter.importItems(owner.getId(), CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), events::add);
+
+        // then
+        assertEquals(2L, result.getProcessed());
+        assertEquals(1L, result.getImported());
+        assertEquals(1L, result.getFailed());
+        assertEquals(2L, events.get(0).getRow());
+        assertEquals("Quoted field is not closed before the end of the input", events.get(0).getError());
+        assertEquals(Boolean.TRUE, events.get(events.size() - 1).getDone());
+    }
+
+    @Test
+    void importItems_CsvWithoutRequiredColumns_ThrowsBadRequestException() {
+        assertThrows(BadRequestException.class, () -> itemImporter.importItems(owner.getId(), CSV,
+                new ByteArrayInputStream("name,description\n".getBytes(StandardCharsets.UTF_8)), event -> {
+                }));
+    }
+
+    @Test
+    void importItems_UserNotFound_ThrowsNotFoundException() {
+        assertThrows(NotFoundException.class, () -> itemImporter.importItems(Long.MAX_VALUE, NDJSON,
+                new ByteArrayInputStream(new byte[0]), event -> {
+                }));
+    }
+}
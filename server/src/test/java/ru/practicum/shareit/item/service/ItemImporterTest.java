@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import ru.practicum.shareit.item.dto.ItemImportProgressDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserValidator;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImporterTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserValidator userValidator;
+
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void importItems_CommitFails_ReportsChunkAndFinishes() throws Exception {
+        // given
+        ItemImporter itemImporter = new ItemImporter(itemRepository, itemRequestRepository, userRepository,
+                userValidator, itemSearchIndex, Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(), transactionManager, 1024);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        doThrow(new TransactionSystemException("Could not commit")).when(transactionManager).commit(any());
+        String ndjson = "{\"name\":\"Drill\",\"description\":\"cordless\",\"available\":true}\n";
+        List<ItemImportProgressDto> events = new ArrayList<>();
+
+        // when
+        ItemImportProgressDto result = itemImporter.importItems(1L, MediaType.parseMediaType(ItemImporter.NDJSON),
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), events::add);
+
+        // then
+        assertEquals(0L, result.getImported());
+        assertEquals(1L, result.getFailed());
+        assertEquals(2, events.size());
+        assertEquals(1L, events.get(0).getRow());
+        assertEquals("Not saved: Could not commit", events.get(0).getError());
+        assertEquals(Boolean.TRUE, events.get(1).getDone());
+        verify(itemSearchIndex, never()).put(any());
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+// Not transactional: the index is only updated after a commit.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shareit-search-index",
+        "shareit.search.index.enabled=true"
+})
+class ItemSearchIndexIntegrationTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void searchAvailableItem_MatchesRepositoryResults() {
+        // given
+        User user = new User();
+        user.setName("owner");
+        user.setEmail("index-owner@email.com");
+        userRepository.save(user);
+
+        itemService.addItem(user.getId(), new ItemRequestDto("Дрель", "Аккумуляторная дрель", true, null));
+        itemService.addItem(user.getId(), new ItemRequestDto("Drill", "Cordless DRILL with battery", true, null));
+        itemService.addItem(user.getId(), new ItemRequestDto("Saw", "Hand saw, drills not included", true, null));
+        ItemResponseDto hidden = itemService.addItem(user.getId(),
+                new ItemRequestDto("Drill press", "Bench drill", false, null));
+        ItemResponseDto flipped = itemService.addItem(user.getId(),
+                new ItemRequestDto("Ladder", "Aluminium ladder", true, null));
+        itemService.updateItem(user.getId(), flipped.getId(), new ItemRequestDto(null, null, false, null));
+        itemService.updateItem(user.getId(), hidden.getId(), new ItemRequestDto(null, "Bench drill, fixed", true, null));
+        long hitsBefore = itemSearchIndex.getHitCount();
+
+        // when / then
+        for (String text : List.of("drill", "DRI", "дрел", "l", "aw", "ladder", "fixed", "ll w", "missing")) {
+            for (int from : List.of(0, 1, 2)) {
+                assertThat(text + " from " + from, searchIds(text, from, 2), equalTo(repositoryIds(text, from, 2)));
+            }
+        }
+        assertThat(itemSearchIndex.getHitCount(), greaterThan(hitsBefore));
+        assertThat(itemSearchIndex.getEstimatedMemoryBytes(), greaterThan(0L));
+    }
+
+    @Test
+    void addItem_RolledBack_IsNotIndexed() {
+        // given
+        User user = userRepository.save(new User(null, "index-rollback@email.com", "owner"));
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            itemService.addItem(user.getId(), new ItemRequestDto("Theodolite", "Rolled back", true, null));
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertThat(searchIds("theodolite", 0, 10), equalTo(List.of()));
+        assertThat(repositoryIds("theodolite", 0, 10), equalTo(List.of()));
+    }
+
+    @Test
+    void search_WithoutFilter_CountsDatabaseFallbackAsMiss() {
+        // given
+        long missesBefore = itemSearchIndex.getMissCount();
+
+        // when
+        boolean answered = itemSearchIndex.search("drill", 0, 10, null).isPresent();
+
+        // then
+        assertThat(answered, equalTo(false));
+        assertThat(itemSearchIndex.getMissCount(), equalTo(missesBefore + 1));
+    }
+
+    private List<Long> searchIds(String text, int from, int size) {
+        return itemService.searchAvailableItem(text, from, size).stream()
+                .map(ItemResponseDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> repositoryIds(String text, int from, int size) {
+        return itemRepository.searchAvailableItem(text, PageRequest.of(from / size, size)).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -11,10 +11,12 @@ import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.AvailabilityCalendar;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Comment;
@@ -26,14 +28,18 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserValidator;
 import ru.practicum.shareit.utility.BookingDtoMapper;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.LongPredicate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -46,6 +52,9 @@ class ItemServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserValidator userValidator;
+
     @Mock
     private BookingRepository bookingRepository;
 
@@ -55,6 +64,12 @@ class ItemServiceImplTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private AvailabilityCalendar availabilityCalendar;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -115,7 +130,6 @@ class ItemServiceImplTest {
         // given
         ItemRequestDto itemToUpdate = createItem2Dto();
         when(itemRepository.save(any(Item.class))).thenReturn(updatedItem);
-        when(userRepository.findById(any(Long.class))).thenReturn(Optional.ofNullable(user));
         when(itemRepository.findById(any(Long.class))).thenReturn(Optional.ofNullable(updatedItem));
 
         // when
@@ -139,7 +153,6 @@ class ItemServiceImplTest {
         itemToUpdate.setDescription(null);
         itemToUpdate.setAvailable(null);
         when(itemRepository.save(any(Item.class))).thenReturn(item);
-        when(userRepository.findById(any(Long.class))).thenReturn(Optional.ofNullable(user));
         when(itemRepository.findById(any(Long.class))).thenReturn(Optional.ofNullable(updatedItem));
 
         // when
@@ -158,7 +171,6 @@ class ItemServiceImplTest {
         // given
         ItemRequestDto itemToUpdate = createItem2Dto();
         updatedItem.setUser(new User(2L, "user@email.com", "username"));
-        when(userRepository.findById(any(Long.class))).thenReturn(Optional.ofNullable(user));
         when(itemRepository.findById(any(Long.class))).thenReturn(Optional.ofNullable(updatedItem));
 
         // then
@@ -266,6 +278,37 @@ class ItemServiceImplTest {
         assertEquals(itemToGet2.getAvailable(), items.get(1).getAvailable());
     }
 
+    @Test
+    void getAllItemsByOwner_WithBookingsAndComments_AssemblesEachItemFromItsOwn() {
+        // given
+        Item otherItem = new Item(2L, "Other", "Other description", user, true, null);
+        LocalDateTime now = LocalDateTime.now();
+        Booking last = new Booking(1L, now.minusDays(3), now.minusDays(2), addedItem, user, BookingStatus.APPROVED);
+        Booking next = new Booking(2L, now.plusDays(1), now.plusDays(2), addedItem, user, BookingStatus.APPROVED);
+        Booking otherNext = new Booking(3L, now.plusDays(5), now.plusDays(6), otherItem, user, BookingStatus.APPROVED);
+        Comment comment = new Comment();
+        comment.setId(1L);
+        comment.setText("text");
+        comment.setAuthor(user);
+        comment.setItem(otherItem);
+        when(itemRepository.findAllByUserIdOrderById(any(Long.class), any(Pageable.class)))
+                .thenReturn(List.of(addedItem, otherItem));
+        when(bookingRepository.findLastAndNextApprovedByItemIds(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(otherNext, next, last));
+        when(commentRepository.findAllByItemIn(List.of(addedItem, otherItem))).thenReturn(List.of(comment));
+
+        // when
+        List<ItemResponseDto> items = itemService.getAllItemsByOwner(1L, 0, 10);
+
+        // then
+        assertEquals(BookingDtoMapper.toBookingRequestDto(last), items.get(0).getLastBooking());
+        assertEquals(BookingDtoMapper.toBookingRequestDto(next), items.get(0).getNextBooking());
+        assertEquals(0, items.get(0).getComments().size());
+        assertNull(items.get(1).getLastBooking());
+        assertEquals(BookingDtoMapper.toBookingRequestDto(otherNext), items.get(1).getNextBooking());
+        assertEquals(1, items.get(1).getComments().size());
+    }
+
     @Test
     void searchAvailableItem_Valid_ReturnItems() {
         // given
@@ -283,6 +326,20 @@ class ItemServiceImplTest {
         assertEquals(itemToSearch.getAvailable(), availableItems.get(0).getAvailable());
     }
 
+    @Test
+    void searchAvailableItem_IndexReady_DoesNotQueryRepository() {
+        // given
+        when(itemSearchIndex.search("item", 10, 10)).thenReturn(Optional.of(List.of(addedItem)));
+
+        // when
+        List<ItemResponseDto> availableItems = itemService.searchAvailableItem("item", 10, 10);
+
+        // then
+        assertEquals(1, availableItems.size());
+        assertEquals(addedItem.getId(), availableItems.get(0).getId());
+        verify(itemRepository, never()).searchAvailableItem(any(String.class), any(Pageable.class));
+    }
+
     @Test
     void searchAvailableItem_WithBlankRequestValid_ReturnItems() {
         // when
@@ -293,6 +350,97 @@ class ItemServiceImplTest {
         assertEquals(0, availableItems.size());
     }
 
+    @Test
+    void searchAvailableItemFreeBetween_CalendarReady_FiltersIndexResults() {
+        // given
+        LocalDateTime freeFrom = LocalDateTime.now().plusDays(1);
+        LocalDateTime freeTo = freeFrom.plusDays(2);
+        LongPredicate isFree = id -> true;
+        when(availabilityCalendar.freeBetween(freeFrom, freeTo)).thenReturn(Optional.of(isFree));
+        when(itemSearchIndex.search("item", 10, 10, isFree)).thenReturn(Optional.of(List.of(addedItem)));
+
+        // when
+        List<ItemResponseDto> freeItems = itemService.searchAvailableItemFreeBetween("item", freeFrom, freeTo, 10, 10);
+
+        // then
+        assertEquals(1, freeItems.size());
+        assertEquals(addedItem.getId(), freeItems.get(0).getId());
+        verify(itemRepository, never()).searchAvailableItemFreeBetween(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchAvailableItemFreeBetween_CalendarNotReady_QueriesRepository() {
+        // given
+        LocalDateTime freeFrom = LocalDateTime.now().plusDays(1);
+        LocalDateTime freeTo = freeFrom.plusDays(2);
+        when(itemRepository.searchAvailableItemFreeBetween(eq(""), eq(freeFrom), eq(freeTo),
+                eq(BookingStatus.RESERVING), any(Pageable.class))).thenReturn(List.of(addedItem));
+
+        // when
+        List<ItemResponseDto> freeItems = itemService.searchAvailableItemFreeBetween("", freeFrom, freeTo, 0, 10);
+
+        // then
+        assertEquals(1, freeItems.size());
+        assertEquals(addedItem.getId(), freeItems.get(0).getId());
+    }
+
+    @Test
+    void searchAvailableItemFreeBetween_EndBeforeStart_ThrowsBadRequestException() {
+        // given
+        LocalDateTime freeFrom = LocalDateTime.now().plusDays(1);
+
+        // then
+        assertThrows(BadRequestException.class,
+                () -> itemService.searchAvailableItemFreeBetween("", freeFrom, freeFrom.minusHours(1), 0, 10));
+        assertThrows(BadRequestException.class,
+                () -> itemService.searchAvailableItemFreeBetween("", freeFrom, null, 0, 10));
+    }
+
+    @Test
+    void getAvailability_ReservedInCalendar_ReturnsNotFree() {
+        // given
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusDays(1);
+        when(itemRepository.findById(addedItem.getId())).thenReturn(Optional.of(addedItem));
+        when(availabilityCalendar.isReserved(addedItem.getId(), from, to)).thenReturn(Optional.of(true));
+
+        // when
+        ItemAvailabilityDto availability = itemService.getAvailability(addedItem.getId(), from, to);
+
+        // then
+        assertFalse(availability.isFree());
+        assertEquals(from, availability.getFrom());
+        assertEquals(to, availability.getTo());
+        verify(bookingRepository, never()).existsOverlapping(any(), any(), any(), any());
+    }
+
+    @Test
+    void getAvailability_CalendarNotReady_QueriesRepository() {
+        // given
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusDays(1);
+        when(itemRepository.findById(addedItem.getId())).thenReturn(Optional.of(addedItem));
+        when(bookingRepository.existsOverlapping(addedItem.getId(), from, to, BookingStatus.RESERVING))
+                .thenReturn(false);
+
+        // when
+        ItemAvailabilityDto availability = itemService.getAvailability(addedItem.getId(), from, to);
+
+        // then
+        assertTrue(availability.isFree());
+        assertEquals(addedItem.getId(), availability.getItemId());
+    }
+
+    @Test
+    void getAvailability_ItemNotFound_ThrowsNotFoundException() {
+        // given
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        // then
+        assertThrows(NotFoundException.class,
+                () -> itemService.getAvailability(99L, from, from.plusDays(1)));
+    }
+
     @Test
     void addComment_Valid_ReturnComment() {
         // given
@@ -100,8 +100,8 @@ class ItemServiceIntegrationTest {
         assertThat(items.size(), equalTo(2));
         assertThat(items.get(0).getLastBooking(), notNullValue());
         assertThat(items.get(1).getNextBooking(), notNullValue());
-        assertThat(items.get(0).getComments().size(), equalTo(2));
-        assertThat(items.get(1).getComments().size(), equalTo(2));
+        assertThat(items.get(0).getComments().size(), equalTo(1));
+        assertThat(items.get(1).getComments().size(), equalTo(1));
     }
 }
 
@@ -11,10 +11,12 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
+import ru.practicum.shareit.request.dto.RequestedItemDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserValidator;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -24,6 +26,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,6 +40,9 @@ class ItemRequestServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserValidator userValidator;
+
     @Mock
     private ItemRepository itemRepository;
 
@@ -69,10 +76,13 @@ class ItemRequestServiceImplTest {
         int size = 10;
         Long userId = 1L;
         ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setId(1L);
+        User owner = new User(2L, "owner@email.com", "owner");
         List<ItemRequest> itemRequests = List.of(itemRequest);
-        List<Item> items = List.of(new Item());
+        List<Item> items = List.of(new Item(3L, "item", "description", owner, true, 1L));
         ItemRequestResponseDto expectedResponseDto = new ItemRequestResponseDto();
-        expectedResponseDto.setItems(items);
+        expectedResponseDto.setId(1L);
+        expectedResponseDto.setItems(List.of(new RequestedItemDto(3L, "item", "description", true, 1L, 2L)));
 
         when(itemRequestRepository.findAllByOwnerIdNot(anyLong(), any(Pageable.class))).thenReturn(itemRequests);
 
@@ -89,15 +99,14 @@ class ItemRequestServiceImplTest {
     void getAllRequests() {
         // given
         Long userId = 1L;
-        User owner = new User();
-        owner.setId(userId);
         ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setId(1L);
+        User owner = new User(2L, "owner@email.com", "owner");
         List<ItemRequest> itemRequests = List.of(itemRequest);
-        List<Item> items = List.of(new Item());
+        List<Item> items = List.of(new Item(3L, "item", "description", owner, true, 1L));
         ItemRequestResponseDto expectedResponseDto = new ItemRequestResponseDto();
-        expectedResponseDto.setItems(items);
-
-        when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
+        expectedResponseDto.setId(1L);
+        expectedResponseDto.setItems(List.of(new RequestedItemDto(3L, "item", "description", true, 1L, 2L)));
 
         when(itemRequestRepository.findAllByOwnerId(any())).thenReturn(itemRequests);
 
@@ -115,12 +124,10 @@ class ItemRequestServiceImplTest {
         // given
         long itemRequestId = 1L;
         long userId = 1L;
-        User user = new User();
         ItemRequest expectedItemRequest = new ItemRequest();
         ArrayList<Item> items = new ArrayList<>();
 
         when(itemRequestRepository.findById(itemRequestId)).thenReturn(Optional.of(expectedItemRequest));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(itemRepository.findAllByRequestId(any())).thenReturn(items);
 
         // when
@@ -129,7 +136,7 @@ class ItemRequestServiceImplTest {
         // then
         assertEquals(expectedItemRequest.getCreated(), actualItemRequest.getCreated());
         assertEquals(expectedItemRequest.getDescription(), actualItemRequest.getDescription());
-        assertEquals(items, actualItemRequest.getItems());
+        assertEquals(List.of(), actualItemRequest.getItems());
     }
 
     @Test
@@ -137,13 +144,22 @@ class ItemRequestServiceImplTest {
         // given
         long itemRequestId = 1L;
         long userId = 1L;
-        User user = new User();
 
         when(itemRequestRepository.findById(itemRequestId)).thenReturn(Optional.empty());
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         // then
         assertThrows(NotFoundException.class,
                 () -> itemRequestService.getRequest(userId, itemRequestId));
     }
+
+    @Test
+    void getRequest_UserNotFound_ThrowsException() {
+        // given
+        doThrow(new NotFoundException("User with id = 1 not found")).when(userValidator).requireExists(1L);
+
+        // then
+        assertThrows(NotFoundException.class,
+                () -> itemRequestService.getRequest(1L, 1L));
+        verify(itemRequestRepository, never()).findById(any());
+    }
 }
\ No newline at end of file
@@ -28,6 +28,9 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserValidator userValidator;
+
     @InjectMocks
     private UserServiceImpl userService;
 
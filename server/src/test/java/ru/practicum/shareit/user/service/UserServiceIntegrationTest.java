@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.user.dto.UserRequestDto;
 import ru.practicum.shareit.user.dto.UserResponseDto;
@@ -11,6 +12,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -23,6 +25,8 @@ class UserServiceIntegrationTest {
     private final UserService userService;
     @Autowired
     private final UserRepository userRepository;
+    @Autowired
+    private final JdbcTemplate jdbcTemplate;
 
     @Test
     void saveUser() {
@@ -44,4 +48,25 @@ class UserServiceIntegrationTest {
         assertEquals(userRequestDto.getName(), userFromDb.get().getName());
         assertEquals(userRequestDto.getEmail(), userFromDb.get().getEmail());
     }
+
+    @Test
+    void saveUser_RowsInsertedByHand_DoNotCollideWithSequenceIds() {
+        // given
+        UserRequestDto first = new UserRequestDto();
+        first.setName("First");
+        first.setEmail("first-sequence@example.com");
+        UserRequestDto second = new UserRequestDto();
+        second.setName("Second");
+        second.setEmail("second-sequence@example.com");
+
+        // when
+        Long firstId = userService.saveUser(first).getId();
+        jdbcTemplate.update("insert into users (email, name) values ('by-hand@example.com', 'By hand')");
+        Long byHandId = jdbcTemplate.queryForObject("select id from users where email = 'by-hand@example.com'",
+                Long.class);
+        Long secondId = userService.saveUser(second).getId();
+
+        // then
+        assertEquals(3, Set.of(firstId, byHandId, secondId).size());
+    }
 }
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserValidatorTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void requireExists_ConfirmedUser_ProbesDatabaseOnce() {
+        // given
+        UserValidator userValidator = new UserValidator(userRepository, Duration.ofMinutes(1), 100);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        // when
+        userValidator.requireExists(1L);
+        userValidator.requireExists(1L);
+
+        // then
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void requireExists_MissingUser_ThrowsNotFoundException() {
+        // given
+        UserValidator userValidator = new UserValidator(userRepository, Duration.ofMinutes(1), 100);
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        // then
+        assertThrows(NotFoundException.class, () -> userValidator.requireExists(1L));
+        assertThrows(NotFoundException.class, () -> userValidator.requireExists(1L));
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void requireExists_CreatedUser_SkipsDatabase() {
+        // given
+        UserValidator userValidator = new UserValidator(userRepository, Duration.ofMinutes(1), 100);
+
+        // when
+        userValidator.userCreated(1L);
+        userValidator.requireExists(1L);
+
+        // then
+        verify(userRepository, never()).existsById(1L);
+    }
+
+    @Test
+    void requireExists_DeletedUser_ProbesDatabaseAgain() {
+        // given
+        UserValidator userValidator = new UserValidator(userRepository, Duration.ofMinutes(1), 100);
+        userValidator.userCreated(1L);
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        // when
+        userValidator.userDeleted(1L);
+
+        // then
+        assertThrows(NotFoundException.class, () -> userValidator.requireExists(1L));
+    }
+
+    @Test
+    void requireExists_UserCreatedInUncommittedTransaction_ProbesDatabase() {
+        // given
+        UserValidator userValidator = new UserValidator(userRepository, Duration.ofMinutes(1), 100);
+        when(userRepository.existsById(1L)).thenReturn(false);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when
+            userValidator.userCreated(1L);
+
+            // then
+            assertThrows(NotFoundException.class, () -> userValidator.requireExists(1L));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            userValidator.requireExists(1L);
+            verify(userRepository, times(1)).existsById(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void requireExists_ExpiredUser_ProbesDatabaseAgain() {
+        // given
+        UserValidator userValidator = new UserValidator(userRepository, Duration.ZERO, 100);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        // when
+        userValidator.requireExists(1L);
+        userValidator.requireExists(1L);
+
+        // then
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void requireExists_MoreUsersThanMaxSize_ProbesDatabaseForEvictedUsers() {
+        // given
+        UserValidator userValidator = new UserValidator(userRepository, Duration.ofMinutes(1), 1);
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        // when
+        userValidator.requireExists(1L);
+        userValidator.requireExists(2L);
+        userValidator.requireExists(1L);
+        userValidator.requireExists(2L);
+
+        // then
+        verify(userRepository, atLeast(3)).existsById(anyLong());
+    }
+}
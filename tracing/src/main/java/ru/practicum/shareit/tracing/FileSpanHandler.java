@@ -0,0 +1,144 @@
+package ru.practicum.shareit.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Appends finished spans to a file, one Zipkin v2 JSON span per line, so the files of the gateway and the
+ * server can be joined by trace id or loaded into Zipkin. Spans are queued and written in batches by a
+ * background thread that flushes after each batch; when the queue is full, spans are dropped rather than
+ * slowing the requests down.
+ */
+@Slf4j
+public class FileSpanHandler extends SpanHandler implements Closeable {
+    private static final int BATCH_SIZE = 512;
+    private static final long POLL_TIMEOUT_MS = 100;
+    private static final long CLOSE_TIMEOUT_MS = 5_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path file;
+    private final BlockingQueue<String> queue;
+    private final BufferedWriter writer;
+    private final Thread writerThread;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed;
+
+    public FileSpanHandler(Path file, int queueCapacity) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        this.file = file;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.writerThread = new Thread(this::writeSpans, "span-file-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause == Cause.ABANDONED) {
+            return true;
+        }
+        try {
+            if (closed || !queue.offer(objectMapper.writeValueAsString(toZipkinJson(span)))) {
+                dropped.incrementAndGet();
+            }
+        } catch (IOException e) {
+            log.warn("Span {} of trace {} not written", span.id(), span.traceId(), e);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the spans still queued and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            writerThread.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer.close();
+    }
+
+    private void writeSpans() {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                String line = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (line == null) {
+                    continue;
+                }
+                batch.add(line);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (String span : batch) {
+                    writer.write(span);
+                    writer.newLine();
+                }
+                writer.flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.warn("{} spans not written to {}", batch.size(), file, e);
+            }
+            batch.clear();
+            long droppedSpans = dropped.getAndSet(0);
+            if (droppedSpans > 0) {
+                log.warn("{} spans dropped, the span queue was full", droppedSpans);
+            }
+        }
+    }
+
+    private static Map<String, Object> toZipkinJson(MutableSpan span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.traceId());
+        if (span.parentId() != null) {
+            json.put("parentId", span.parentId());
+        }
+        json.put("id", span.id());
+        if (span.kind() != null) {
+            json.put("kind", span.kind().name());
+        }
+        json.put("name", span.name());
+        json.put("timestamp", span.startTimestamp());
+        json.put("duration", Math.max(1, span.finishTimestamp() - span.startTimestamp()));
+        json.put("localEndpoint", Map.of("serviceName", String.valueOf(span.localServiceName())));
+        if (span.remoteServiceName() != null) {
+            json.put("remoteEndpoint", Map.of("serviceName", span.remoteServiceName()));
+        }
+        Map<String, String> tags = new LinkedHashMap<>();
+        span.forEachTag((target, key, value) -> target.put(key, value), tags);
+        if (span.error() != null && !tags.containsKey("error")) {
+            tags.put("error", String.valueOf(span.error().getMessage()));
+        }
+        if (!tags.isEmpty()) {
+            json.put("tags", tags);
+        }
+        return json;
+    }
+}
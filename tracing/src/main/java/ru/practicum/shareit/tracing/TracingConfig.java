@@ -0,0 +1,40 @@
+package ru.practicum.shareit.tracing;
+
+import brave.http.HttpRequestParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.sleuth.instrument.web.HttpServerRequestParser;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Tracing shared by the gateway and the server. Spans are only sampled while a span handler is registered, so
+ * without {@code shareit.tracing.file} the trace context is still propagated and logged, but no spans are recorded.
+ */
+@Configuration
+public class TracingConfig {
+    public static final String USER_ID_TAG = "shareit.user_id";
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @Bean(name = HttpServerRequestParser.NAME)
+    public HttpRequestParser httpServerRequestParser() {
+        return (request, context, span) -> {
+            HttpRequestParser.DEFAULT.parse(request, context, span);
+            String userId = request.header(USER_ID_HEADER);
+            if (userId != null) {
+                span.tag(USER_ID_TAG, userId);
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty("shareit.tracing.file")
+    public FileSpanHandler fileSpanHandler(@Value("${shareit.tracing.file}") Path file,
+                                           @Value("${shareit.tracing.queue-capacity:10000}") int queueCapacity)
+            throws IOException {
+        return new FileSpanHandler(file, queueCapacity);
+    }
+}
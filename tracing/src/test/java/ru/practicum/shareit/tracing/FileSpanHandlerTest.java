@@ -0,0 +1,79 @@
+package ru.practicum.shareit.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileSpanHandlerTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void close_WritesQueuedSpans() throws Exception {
+        // given
+        Path file = directory.resolve("traces/spans.jsonl");
+        FileSpanHandler handler = new FileSpanHandler(file, 1_000);
+
+        // when
+        for (int i = 1; i <= 600; i++) {
+            handler.end(context(i), span(i), SpanHandler.Cause.FINISHED);
+        }
+        handler.end(context(601), span(601), SpanHandler.Cause.ABANDONED);
+        handler.close();
+
+        // then
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(600, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(String.format("%016x", 1), first.path("id").asText());
+        assertEquals("SERVER", first.path("kind").asText());
+        assertEquals("GET /items", first.path("name").asText());
+        assertEquals("shareit-server", first.path("localEndpoint").path("serviceName").asText());
+        assertEquals("7", first.path("tags").path(TracingConfig.USER_ID_TAG).asText());
+    }
+
+    @Test
+    void end_QueueFull_DropsSpans() throws Exception {
+        // given
+        Path file = directory.resolve("spans.jsonl");
+        FileSpanHandler handler = new FileSpanHandler(file, 1);
+
+        // when
+        for (int i = 1; i <= 10_000; i++) {
+            handler.end(context(i), span(i), SpanHandler.Cause.FINISHED);
+        }
+        handler.close();
+
+        // then
+        long written = Files.readAllLines(file).size();
+        assertTrue(written > 0 && written < 10_000, written + " spans written");
+    }
+
+    private static TraceContext context(long spanId) {
+        return TraceContext.newBuilder().traceId(1L).spanId(spanId).build();
+    }
+
+    private static MutableSpan span(long spanId) {
+        MutableSpan span = new MutableSpan(context(spanId), null);
+        span.kind(brave.Span.Kind.SERVER);
+        span.name("GET /items");
+        span.localServiceName("shareit-server");
+        span.tag(TracingConfig.USER_ID_TAG, "7");
+        span.startTimestamp(1_000L);
+        span.finishTimestamp(2_000L);
+        return span;
+    }
+}